@@ -84,12 +84,12 @@ $totalFiles = 0
 $pathsToClean = @()
 
 foreach ($path in $foundPaths) {
-    # Check for files (csv, txt, log)
+    # Check for files (csv, txt, log, DataLogger binary logs and segments, gzipped or not)
     $checkCmd = "$adbCmd shell ls $path"
     $files = Invoke-Expression $checkCmd
     
     if ($files -and $files -notmatch "No such file") {
-        $fileList = $files -split "`r`n" | Where-Object { $_ -match "\.(csv|txt|log)$" }
+        $fileList = $files -split "`r`n" | ForEach-Object { $_.Trim() } | Where-Object { $_ -match "\.(csv|txt|log|sblog|sbseg)(\.gz)?$" }
         $count = $fileList.Count
         
         if ($count -gt 0) {
@@ -102,7 +102,7 @@ def get_insights(kS, kV, kA, r_squared, max_vel, max_power_used, residuals):
 
     return insights, next_steps
 
-def derive_coefficients(file_path, save_plot=False):
+def derive_coefficients(file_path, save_plot=False, nominal_voltage=12.5):
     print(f"Deriving coefficients from {file_path}...")
     df = parse_log_file(file_path)
     if df is None:
@@ -112,6 +112,12 @@ def derive_coefficients(file_path, save_plot=False):
         print("Error: Missing 'Timestamp' column.")
         return
 
+    # The voltage is only logged when a new sample changes it
+    has_voltage = 'Voltage' in df.columns and df['Voltage'].notna().any()
+    if has_voltage:
+        df['Voltage'] = df['Voltage'].ffill().bfill()
+        print(f"Normalizing power to {nominal_voltage:g}V (battery {df['Voltage'].min():.2f}V - {df['Voltage'].max():.2f}V)")
+
     # Find motor columns (ending in TPS, excluding TargetTPS)
     tps_cols = [c for c in df.columns if c.endswith('TPS') and c != 'TargetTPS']
     
@@ -157,6 +163,13 @@ def derive_coefficients(file_path, save_plot=False):
                 print(f"Skipping {tps_col}: Could not find power column '{power_col}'")
                 continue
 
+        # Power is a fraction of the battery voltage. With the voltage logged, fit against the power
+        # the motor would have needed at the nominal voltage, so the gains hold on any battery
+        fit_col = power_col
+        if has_voltage:
+            fit_col = f"{power_col}@{nominal_voltage:g}V"
+            df[fit_col] = df[power_col] * df['Voltage'] / nominal_voltage
+
         print(f"\n--- Analyzing Motor: {tps_col} ---")
 
         # --- Preprocessing ---
@@ -187,7 +200,7 @@ def derive_coefficients(file_path, save_plot=False):
             'Vel': df_clean[tps_col],
             'Accel': df_clean['Accel']
         })
-        y = df_clean[power_col]
+        y = df_clean[fit_col]
         
         model = LinearRegression(fit_intercept=False)
         model.fit(X, y)
@@ -203,7 +216,7 @@ def derive_coefficients(file_path, save_plot=False):
         pred_power_clean = model.predict(X)
         residuals = y - pred_power_clean
         
-        insights, next_steps = get_insights(kS, kV, kA, r_squared, max_vel, df_clean[power_col].max(), residuals)
+        insights, next_steps = get_insights(kS, kV, kA, r_squared, max_vel, df_clean[fit_col].max(), residuals)
 
         print(f"Derived Coefficients (R²={r_squared:.4f}):")
         print(f"  kS: {kS:.5f}")
@@ -236,7 +249,7 @@ def derive_coefficients(file_path, save_plot=False):
 
         # Row 2: Voltage vs Velocity (Scatter)
         ax_scat = axes[1][i] if num_motors > 1 else axes[1][0]
-        ax_scat.scatter(df_clean[tps_col], df_clean[power_col], alpha=0.3, s=5, label='Data', color=COLORS['Actual'])
+        ax_scat.scatter(df_clean[tps_col], df_clean[fit_col], alpha=0.3, s=5, label='Data', color=COLORS['Actual'])
         
         # Plot fit line (assuming Accel=0 for the line)
         vel_range = np.linspace(df_clean[tps_col].min(), df_clean[tps_col].max(), 100)
@@ -269,17 +282,17 @@ def derive_coefficients(file_path, save_plot=False):
         
         pred_power = kS * np.sign(df_pred[tps_col]) + kV * df_pred[tps_col] + kA * df_pred['Accel']
         
-        ax_fit.plot(df['Timestamp'], df[power_col], label='Actual Power', color=COLORS['Actual'], alpha=0.6)
+        ax_fit.plot(df['Timestamp'], df[fit_col], label='Actual Power', color=COLORS['Actual'], alpha=0.6)
         ax_fit.plot(df['Timestamp'], pred_power, label='Predicted', color=COLORS['Predicted'], linestyle='--', alpha=0.8)
         
         # Highlight Good vs Bad Fit Areas
-        residuals = df[power_col] - pred_power
+        residuals = df[fit_col] - pred_power
         # Green fill for good fit (error < 0.1)
-        ax_fit.fill_between(df['Timestamp'], df[power_col], pred_power, 
+        ax_fit.fill_between(df['Timestamp'], df[fit_col], pred_power, 
                             where=(residuals.abs() < 0.1), 
                             color='green', alpha=0.1, label='Good Fit')
         # Red fill for poor fit (error >= 0.1)
-        ax_fit.fill_between(df['Timestamp'], df[power_col], pred_power, 
+        ax_fit.fill_between(df['Timestamp'], df[fit_col], pred_power, 
                             where=(residuals.abs() >= 0.1), 
                             color='red', alpha=0.2, label='Poor Fit (>0.1 Err)')
 
@@ -421,10 +434,12 @@ if __name__ == "__main__":
     parser = argparse.ArgumentParser(description='Derive Motor Feedforward Coefficients (kS, kV, kA)')
     parser.add_argument('file', nargs='?', help='Path to the CSV log file')
     parser.add_argument('--save', action='store_true', help='Save plot to PNG instead of showing it')
+    parser.add_argument('--nominal-voltage', type=float, default=12.5,
+                        help='Battery voltage the gains are fitted for when the log has a Voltage column (BatteryVoltageConfig.NominalVoltage)')
     args = parser.parse_args()
 
     if args.file:
-        derive_coefficients(args.file, args.save)
+        derive_coefficients(args.file, args.save, args.nominal_voltage)
     else:
         # Find the latest CSV
         files = [f for f in os.listdir('.') if f.endswith('.csv')]
@@ -436,6 +451,6 @@ if __name__ == "__main__":
         if files:
             latest_file = max(files, key=os.path.getmtime)
             print(f"No file specified. Using latest log: {latest_file}")
-            derive_coefficients(latest_file, args.save)
+            derive_coefficients(latest_file, args.save, args.nominal_voltage)
         else:
             print("No CSV log files found.")
\ No newline at end of file
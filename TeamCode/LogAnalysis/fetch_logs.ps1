@@ -1,4 +1,5 @@
-# Script to fetch CSV logs from Control Hub
+# Script to fetch DataLogger logs (.csv, .sblog, .sbseg, gzipped or not) from Control Hub
+# Gzipped logs are decompressed after download
 # Usage: .\fetch_logs.ps1 [-SavePath "C:\My\Logs"]
 
 param (
@@ -69,19 +70,39 @@ if ($adbSerial) {
     $files = adb shell ls "$remotePath"
 }
 
-$fileList = $files -split "[\r\n]+" | Where-Object { $_ -ne "" -and $_ -like "*.csv" }
+$fileList = $files -split "[\r\n]+" | ForEach-Object { $_.Trim() } | Where-Object { $_ -match "\.(csv|sblog|sbseg)(\.gz)?$" }
 
 if ($fileList.Count -eq 0) {
-    Write-Host "No CSV logs found."
+    Write-Host "No logs found."
     exit 0
 }
 
+# Replaces a downloaded .gz file with its decompressed content
+function Expand-GzipFile([string]$gzPath, [string]$outPath) {
+    $in = [System.IO.File]::OpenRead($gzPath)
+    try {
+        $gzip = New-Object System.IO.Compression.GZipStream($in, [System.IO.Compression.CompressionMode]::Decompress)
+        $out = [System.IO.File]::Create($outPath)
+        try {
+            $gzip.CopyTo($out)
+        } finally {
+            $out.Dispose()
+            $gzip.Dispose()
+        }
+    } finally {
+        $in.Dispose()
+    }
+    Remove-Item $gzPath
+}
+
 Write-Host "`nProcessing $($fileList.Count) files..."
 
 foreach ($file in $fileList) {
     $localPath = Join-Path -Path $SavePath -ChildPath $file
-    
-    if (Test-Path $localPath) {
+    # Compressed logs are kept decompressed locally
+    $expandedPath = $localPath -replace "\.gz$", ""
+
+    if ((Test-Path $localPath) -or (Test-Path $expandedPath)) {
         Write-Host "Skipping (Already Exists): $localPath" -ForegroundColor Yellow
     } else {
         # Pull specific file
@@ -90,6 +111,10 @@ foreach ($file in $fileList) {
         } else {
             adb pull "$remotePath/$file" "$SavePath" | Out-Null
         }
+        if ($expandedPath -ne $localPath) {
+            Expand-GzipFile $localPath $expandedPath
+            $localPath = $expandedPath
+        }
         Write-Host "Pulled: $localPath" -ForegroundColor Green
     }
 }
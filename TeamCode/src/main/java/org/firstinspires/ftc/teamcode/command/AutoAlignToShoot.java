@@ -5,10 +5,14 @@ import com.arcrobotics.ftclib.command.CommandBase;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
 import org.firstinspires.ftc.teamcode.common.AprilTagPosition;
-import org.firstinspires.ftc.teamcode.opmodes.teleop.MainTeleop;
+import org.firstinspires.ftc.teamcode.control.LoopPIDFController;
+import org.firstinspires.ftc.teamcode.signals.Signal;
+import org.firstinspires.ftc.teamcode.signals.SignalBus;
 import org.firstinspires.ftc.teamcode.subsystems.drivetrain.DriveTrainBase;
 import org.firstinspires.ftc.teamcode.subsystems.vision.LimeLightAlign;
-import org.firstinspires.ftc.teamcode.util.SonicPIDFController;
+import org.firstinspires.ftc.teamcode.subsystems.vision.VisionSnapshot;
+import org.firstinspires.ftc.teamcode.subsystems.vision.VisionConsumer;
+import org.firstinspires.ftc.teamcode.util.HeadingAimController;
 
 public class AutoAlignToShoot extends CommandBase {
 
@@ -22,6 +26,15 @@ public class AutoAlignToShoot extends CommandBase {
 
         public static double minPower = 0.075;
 
+        // With a heading sensor the setpoint from the last frame is tracked on the gyro this
+        // long after the tag was last seen
+        public static double TargetHoldMs = 500;
+
+        // Alignment has to hold this long before the command ends; the gyro loop does not
+        // overshoot like the camera-rate loop, so it needs less than the 150 ms of the latter
+        public static long HeadingSettleMs = 60;
+
+        public static long CameraSettleMs = 150;
     }
 
     private final LimeLightAlign limelight;
@@ -44,7 +57,15 @@ public class AutoAlignToShoot extends CommandBase {
 
     private final double pointOfInterestRange;
 
-    SonicPIDFController pid = new SonicPIDFController(AutoAlignConfig.pid_k, AutoAlignConfig.pid_i, AutoAlignConfig.pid_d);
+    LoopPIDFController pid = new LoopPIDFController(AutoAlignConfig.pid_k, AutoAlignConfig.pid_i, AutoAlignConfig.pid_d);
+
+    private final HeadingAimController aim = new HeadingAimController();
+
+    private final Signal tagFoundSignal = SignalBus.get().addBoolean("AutoAlign", "TagFound");
+    private final Signal horizontalAngleSignal = SignalBus.get().addDouble("AutoAlign", "HorizontalAngle");
+    private final Signal alignedSignal = SignalBus.get().addBoolean("AutoAlign", "IsAligned");
+    private final Signal errorSignal = SignalBus.get().addDouble("AutoAlign", "Error");
+    private final Signal turnPowerSignal = SignalBus.get().addDouble("AutoAlign", "TurnPower");
 
     public AutoAlignToShoot(LimeLightAlign limelight, DriveTrainBase drivetrain, Telemetry telemetry) {
         this(limelight, drivetrain, telemetry, DefaultPointOfInterestOffset, DefaultPointOfInterestRange, true);
@@ -62,10 +83,22 @@ public class AutoAlignToShoot extends CommandBase {
     @Override
     public void initialize() {
         super.initialize();
+        limelight.requestPipeline(VisionConsumer.GOAL_AIM);
+        aim.reset();
+        pid.reset();
+        lastFrameId = 0;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        super.end(interrupted);
+        limelight.releasePipeline(VisionConsumer.GOAL_AIM);
     }
 
     boolean isAligned = false;
 
+    private long lastFrameId;
+
     @Override
     public void execute() {
         super.execute();
@@ -74,40 +107,92 @@ public class AutoAlignToShoot extends CommandBase {
             CommandStartTime = System.currentTimeMillis();
         }
 
-        AprilTagPosition position = limelight.getAprilTagPosition();
-        if (position != null) {
-            double horizontalAngle = position.horizontalAngle();
-            double error = horizontalAngle - this.pointOfInterestOffset;
-            this.isAligned = horizontalAngle > this.pointOfInterestOffset - this.pointOfInterestRange && horizontalAngle < this.pointOfInterestOffset + this.pointOfInterestRange;
+        if (drivetrain.hasHeadingSensor()) {
+            executeOnHeading();
+        } else {
+            executeOnCamera();
+        }
+    }
+
+    /**
+     * Camera frames only move the heading setpoint, the turn is closed on the Pinpoint heading
+     * every loop.
+     */
+    private void executeOnHeading() {
+        long now = System.nanoTime();
+        double heading = drivetrain.readHeading();
+        aim.recordHeading(now, heading);
+
+        VisionSnapshot snapshot = limelight.getFreshSnapshot().orElse(null);
+        AprilTagPosition goalTag = snapshot == null ? null : snapshot.confidentGoalTag(LimeLightAlign.LimelightConfig.MinGoalConfidence);
+        boolean tagFound = goalTag != null;
+        if (tagFound) {
+            aim.onVision(snapshot.frameId(), snapshot.captureNanos(), goalTag.horizontalAngle(), pointOfInterestOffset);
+            horizontalAngleSignal.set(goalTag.horizontalAngle());
+        }
+        tagFoundSignal.set(tagFound);
 
-            double turnPower = pid.calculatePIDAlgorithm(error);
+        if (!aim.hasTarget(now, AutoAlignConfig.TargetHoldMs)) {
+            // Don't continue if the april tag is no longer visible
+            drivetrain.Stop();
+            isAligned = true;
+            return;
+        }
+        turn(aim.errorDegrees(heading));
+    }
 
-            if(!isAligned) {
-                turnPower = Math.max(Math.abs(turnPower), AutoAlignConfig.minPower) * Math.signum(turnPower);
-                drivetrain.Turn(turnPower);
-            }  else {
+    /**
+     * Without a heading sensor the PID runs at camera rate: loops without a new frame keep the last
+     * turn power instead of feeding the same tx to the PID again.
+     */
+    private void executeOnCamera() {
+        if (!limelight.hasNewFrameSince(lastFrameId)) {
+            if (limelight.getFrameAgeMs() > LimeLightAlign.LimelightConfig.MaxSnapshotAgeMs) {
+                tagFoundSignal.set(false);
                 drivetrain.Stop();
+                isAligned = true;
             }
+            return;
+        }
+        lastFrameId = limelight.getFrameId();
 
-            if(MainTeleop.Telemetry.AutoAlign) {
-                telemetry.addData("horizontal Angle", horizontalAngle);
-                telemetry.addData("is Aligned", isAligned);
-                telemetry.addData("error", error);
-                telemetry.addData("turn power", turnPower);
-            }
+        AprilTagPosition position = limelight.getAprilTagPosition();
+        if (position != null) {
+            double horizontalAngle = position.horizontalAngle();
+            tagFoundSignal.set(true);
+            horizontalAngleSignal.set(horizontalAngle);
+            turn(horizontalAngle - this.pointOfInterestOffset);
         } else {
-            if(MainTeleop.Telemetry.AutoAlign) {
-                telemetry.addData("April tag found", false);
-            }
+            tagFoundSignal.set(false);
 
             // Don't continue if the april tag is no longer visible
             drivetrain.Stop();
             isAligned = true;
         }
+    }
+
+    /**
+     * @param error bearing error in degrees, camera convention (positive when the goal is to the right)
+     */
+    private void turn(double error) {
+        this.isAligned = Math.abs(error) < this.pointOfInterestRange;
+
+        double turnPower = pid.calculate(error);
 
-        if(MainTeleop.Telemetry.AutoAlign) {
-            telemetry.update();
+        if(!isAligned) {
+            turnPower = Math.max(Math.abs(turnPower), AutoAlignConfig.minPower) * Math.signum(turnPower);
+            drivetrain.Turn(turnPower);
+        }  else {
+            drivetrain.Stop();
         }
+
+        alignedSignal.set(isAligned);
+        errorSignal.set(error);
+        turnPowerSignal.set(turnPower);
+    }
+
+    private long settleMs() {
+        return drivetrain.hasHeadingSensor() ? AutoAlignConfig.HeadingSettleMs : AutoAlignConfig.CameraSettleMs;
     }
 
     long startAlignTime = 0;
@@ -127,7 +212,7 @@ public class AutoAlignToShoot extends CommandBase {
                     // First time seeing align
                     this.startAlignTime = System.currentTimeMillis();
                 } else
-                    if(System.currentTimeMillis() - startAlignTime > 150) {
+                    if(System.currentTimeMillis() - startAlignTime > settleMs()) {
                         // has been aligned for a while now. Safe to exit
                         CommandStartTime = 0;
                         return true;
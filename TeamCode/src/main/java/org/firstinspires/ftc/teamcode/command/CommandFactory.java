@@ -18,10 +18,13 @@ import org.firstinspires.ftc.teamcode.opmodes.auton.positions.Positions;
 import org.firstinspires.ftc.teamcode.subsystems.drivetrain.AutonDriveTrain;
 import org.firstinspires.ftc.teamcode.subsystems.drivetrain.TeleopDrivetrain;
 import org.firstinspires.ftc.teamcode.subsystems.scoring.Intake;
+import org.firstinspires.ftc.teamcode.subsystems.scoring.MovingShotSolver;
 import org.firstinspires.ftc.teamcode.subsystems.scoring.Shooter;
 import org.firstinspires.ftc.teamcode.subsystems.scoring.Stopper;
 import org.firstinspires.ftc.teamcode.subsystems.scoring.TransferChamber;
 import org.firstinspires.ftc.teamcode.subsystems.vision.LimeLightAlign;
+import org.firstinspires.ftc.teamcode.subsystems.vision.PipelineScheduler;
+import org.firstinspires.ftc.teamcode.subsystems.vision.VisionConsumer;
 
 import java.util.Arrays;
 import java.util.List;
@@ -110,14 +113,30 @@ public class CommandFactory {
      * turn on chamber roller then intake roller.
      */
     public Command startIntake() {
-        return new InstantCommand(transferChamber::TurnOnChamberRoller).andThen(new InstantCommand(intake::StartIntake));
+        return new InstantCommand(transferChamber::TurnOnChamberRoller).andThen(new InstantCommand(intake::StartIntake))
+                .andThen(new InstantCommand(() -> setArtifactDetection(true)));
     }
 
     /**
      * Turn off intake roller then chamber roller.
      */
     public Command stopIntake() {
-        return new InstantCommand(intake::StopIntake).andThen(new InstantCommand(transferChamber::TurnOffChamberRoller));
+        return new InstantCommand(intake::StopIntake).andThen(new InstantCommand(transferChamber::TurnOffChamberRoller))
+                .andThen(new InstantCommand(() -> setArtifactDetection(false)));
+    }
+
+    /**
+     * Shares the camera with the artifact pipeline while the intake runs, when enabled.
+     */
+    private void setArtifactDetection(boolean intaking) {
+        if (limeLightAlign == null || !PipelineScheduler.PipelineSchedulerConfig.ArtifactDetectionDuringIntake) {
+            return;
+        }
+        if (intaking) {
+            limeLightAlign.requestPipeline(VisionConsumer.ARTIFACT_INTAKE);
+        } else {
+            limeLightAlign.releasePipeline(VisionConsumer.ARTIFACT_INTAKE);
+        }
     }
 
     public Command intake() {
@@ -216,7 +235,7 @@ public class CommandFactory {
 
     public Command loadAndShoot(Command shootCommand, boolean loadFirst) {
         return new ParallelDeadlineGroup(
-                sleep(loadFirst ? AutonCommonConfigs.shootWithLoadTimeoutInMS : AutonCommonConfigs.shootWithoutLoadTimeoutInMS),
+                waitForVolley(loadFirst ? AutonCommonConfigs.shootWithLoadTimeoutInMS : AutonCommonConfigs.shootWithoutLoadTimeoutInMS),
                 stopperGo()
                         .andThen(startIntake())
                         .andThen(turnOnChamberRoller())
@@ -227,6 +246,31 @@ public class CommandFactory {
         ).andThen(stopIntake()).andThen(stopTopRoller()).andThen(turnOffChamberRoller());
     }
 
+    /**
+     * Drives to the shooting pose and feeds as soon as the moving-shot gate opens, usually while the
+     * robot is still decelerating, instead of after it settled. Speed and tilt come from the shot
+     * table at the solved distance. Falls back to moveTo then {@link #loadAndShoot} when
+     * {@link MovingShotSolver.MovingShotConfig#Enabled} is off.
+     */
+    public Command moveToAndShoot(Pose shootingPose, double maxPower, Pose goal, Command shootCommand, boolean loadFirst) {
+        if (!MovingShotSolver.MovingShotConfig.Enabled || goal == null) {
+            return moveTo(shootingPose, PathType.LINE, maxPower).andThen(loadAndShoot(shootCommand, loadFirst));
+        }
+        long shootTimeoutMs = loadFirst ? AutonCommonConfigs.shootWithLoadTimeoutInMS : AutonCommonConfigs.shootWithoutLoadTimeoutInMS;
+        long driveTimeoutMs = TimeUnit.SECONDS.toMillis(DriveCommand.DEFAULT_TIMEOUT_IN_SECONDS);
+        // Ends shootTimeoutMs after the feed started or after the drive finished, whichever comes first
+        return new SounderBotParallelRaceGroup(
+                moveTo(shootingPose, PathType.LINE, maxPower).andThen(sleep(shootTimeoutMs)),
+                stopperGo()
+                        .andThen(startIntake())
+                        .andThen(turnOnChamberRoller())
+                        .andThen(new WaitMovingShotReadyCommand(driveTimeoutMs, follower, shooter, goal, shootingPose))
+                        .andThen(topRollerOutput())
+                        .andThen(waitForVolley(shootTimeoutMs))
+        ).andThen(stopIntake()).andThen(stopTopRoller()).andThen(turnOffChamberRoller())
+                .andThen(new InstantCommand(shooter::clearShotDistance));
+    }
+
     public Pose getCurrentFollowerPose() {
         return follower.getPose();
     }
@@ -235,6 +279,17 @@ public class CommandFactory {
         return new WaitShooterReadyCommand(DEFAULT_TIME_OUT, shooter);
     }
 
+    /**
+     * Waits out a volley: until the shooter detected {@link AutonCommonConfigs#shotsPerVolley}
+     * shots when {@link AutonCommonConfigs#endShootingOnShotCount} is on, else for the full timeout.
+     */
+    public Command waitForVolley(long timeoutMs) {
+        if (!AutonCommonConfigs.endShootingOnShotCount) {
+            return sleep(timeoutMs);
+        }
+        return new WaitShotsCommand(timeoutMs, shooter, AutonCommonConfigs.shotsPerVolley);
+    }
+
     public Command stopperGo() {
         return new InstantCommand(stopper::Go);
     }
@@ -269,7 +324,7 @@ public class CommandFactory {
 //        };
     }
 
-    protected Command intakeRowAndShoot(Pose rowStartingPosition, Pose rowEndingPosition, double intakeDriveTrainPower, Pose rowShootingPosition, ShootRange shootRange, RowsOnFloor row, boolean shoot) {
+    protected Command intakeRowAndShoot(Pose rowStartingPosition, Pose rowEndingPosition, double intakeDriveTrainPower, Pose rowShootingPosition, Pose goalPosition, ShootRange shootRange, RowsOnFloor row, boolean shoot) {
         double driveMaxPower = switch (row) {
             case GPP ->
                     switch (shootRange) {
@@ -287,13 +342,16 @@ public class CommandFactory {
 
         boolean isSecondRow = row == RowsOnFloor.PGP;
 
-        Command driveToShootCommand = isSecondRow
-                ? moveTo(rowStartingPosition, PathType.LINE, driveMaxPower).andThen(moveTo(rowShootingPosition, PathType.LINE, driveMaxPower))
-                : moveTo(rowShootingPosition, PathType.LINE, AutonCommonConfigs.fastMoveSpeed);
+        double shootMoveSpeed = isSecondRow ? driveMaxPower : AutonCommonConfigs.fastMoveSpeed;
+        Command driveToShootCommand = shoot
+                ? moveToAndShoot(rowShootingPosition, shootMoveSpeed, goalPosition, getShootCommand(shootRange), true) // move to shooting position, shoot row
+                : moveTo(rowShootingPosition, PathType.LINE, shootMoveSpeed);
+        if (isSecondRow) {
+            driveToShootCommand = moveTo(rowStartingPosition, PathType.LINE, driveMaxPower).andThen(driveToShootCommand);
+        }
         return moveTo(rowStartingPosition, PathType.CURVE, driveMaxPower)
                 .andThen(intakeRow(rowEndingPosition, intakeDriveTrainPower)) // intake row (3 balls)
-                .andThen(driveToShootCommand) // move to shooting position
-                .andThen(shoot ? loadAndShoot(getShootCommand(shootRange), true) : noop()) // shoot row
+                .andThen(driveToShootCommand)
                 ;
     }
 
@@ -3,15 +3,16 @@ package org.firstinspires.ftc.teamcode.command;
 import static org.firstinspires.ftc.teamcode.command.CommonConstants.ANGLE_UNIT;
 import static org.firstinspires.ftc.teamcode.command.CommonConstants.DISTANCE_UNIT;
 
-import android.util.Log;
-
 import com.acmerobotics.dashboard.config.Config;
 import com.qualcomm.hardware.gobilda.GoBildaPinpointDriver;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.control.LoopPIDFController;
+import org.firstinspires.ftc.teamcode.hardware.BatteryVoltage;
+import org.firstinspires.ftc.teamcode.signals.Signal;
+import org.firstinspires.ftc.teamcode.signals.SignalBus;
 import org.firstinspires.ftc.teamcode.subsystems.drivetrain.AutonDriveTrain;
 import org.firstinspires.ftc.teamcode.util.AngleUtils;
-import org.firstinspires.ftc.teamcode.util.SonicPIDFController;
 
 import lombok.Builder;
 import lombok.Value;
@@ -84,7 +85,15 @@ public class DriveToTargetCommand extends SounderBotCommandBase {
         public static double hPid_d = 0.05;
         public static double hPid_f = 0;
     }
-    private static final String LOG_TAG = DriveToTargetCommand.class.getSimpleName();
+    @Config
+    public static class PIDLimits {
+        // Largest power the I term may contribute, keeps long drives from winding it up
+        public static double IntegralLimit = 0.25;
+
+        // Low-pass on the D term, Pinpoint positions are noisy enough to make it twitch
+        public static double DerivativeFilterSeconds = 0.02;
+    }
+
     double minPower;
 
     double maxPower;
@@ -101,11 +110,11 @@ public class DriveToTargetCommand extends SounderBotCommandBase {
     //Generally, increase P with D will create the response of slowing down harder over a shorter time.
     //I is helpful when straight lines begin to wander left or right without any external input, or if theres a consistent undershoot or overshoot.
 
-    SonicPIDFController xPid;
+    LoopPIDFController xPid;
 
-    SonicPIDFController yPid;
+    LoopPIDFController yPid;
 
-    SonicPIDFController hPid;
+    LoopPIDFController hPid;
 
     boolean turnOffMotorAtEnd;
 
@@ -113,6 +122,21 @@ public class DriveToTargetCommand extends SounderBotCommandBase {
     double xSpeedScale = 1.1;
     double ySpeedScale = 1.0;
 
+    private final Signal targetXSignal = SignalBus.get().addDouble("DriveToTarget", "TargetX");
+    private final Signal targetYSignal = SignalBus.get().addDouble("DriveToTarget", "TargetY");
+    private final Signal targetHeadingSignal = SignalBus.get().addDouble("DriveToTarget", "TargetHeading");
+    private final Signal xSignal = SignalBus.get().addDouble("DriveToTarget", "X");
+    private final Signal ySignal = SignalBus.get().addDouble("DriveToTarget", "Y");
+    private final Signal headingSignal = SignalBus.get().addDouble("DriveToTarget", "HeadingDegrees");
+    private final Signal xPidSignal = SignalBus.get().addDouble("DriveToTarget", "XPid");
+    private final Signal yPidSignal = SignalBus.get().addDouble("DriveToTarget", "YPid");
+    private final Signal hPidSignal = SignalBus.get().addDouble("DriveToTarget", "HPid");
+    private final Signal frontLeftSignal = SignalBus.get().addDouble("DriveToTarget", "FrontLeftPower");
+    private final Signal frontRightSignal = SignalBus.get().addDouble("DriveToTarget", "FrontRightPower");
+    private final Signal backLeftSignal = SignalBus.get().addDouble("DriveToTarget", "BackLeftPower");
+    private final Signal backRightSignal = SignalBus.get().addDouble("DriveToTarget", "BackRightPower");
+    private final Signal doneSignal = SignalBus.get().addBoolean("DriveToTarget", "Done");
+
 
     public DriveToTargetCommand(AutonDriveTrain driveTrain, Telemetry telemetry, DriveParameters driveParameters) {
         super(driveParameters.timeout);
@@ -132,43 +156,50 @@ public class DriveToTargetCommand extends SounderBotCommandBase {
             case FAST:
                 xSpeedScale = 1.1;
                 ySpeedScale = 1.0;
-                xPid = new SonicPIDFController(FastPID.xPid_p, FastPID.xPid_i, FastPID.xPid_d, FastPID.xPid_f);
-                yPid = new SonicPIDFController(FastPID.yPid_p, FastPID.yPid_i, FastPID.yPid_d, FastPID.yPid_f);
-                hPid = new SonicPIDFController(FastPID.hPid_p, FastPID.hPid_i, FastPID.hPid_d, FastPID.hPid_f);
+                xPid = createPid(FastPID.xPid_p, FastPID.xPid_i, FastPID.xPid_d, FastPID.xPid_f);
+                yPid = createPid(FastPID.yPid_p, FastPID.yPid_i, FastPID.yPid_d, FastPID.yPid_f);
+                hPid = createPid(FastPID.hPid_p, FastPID.hPid_i, FastPID.hPid_d, FastPID.hPid_f);
                 break;
             case SLOW:
                 xSpeedScale = 1.1;
                 ySpeedScale = 1.0;
-                xPid = new SonicPIDFController(SlowPID.xPid_p, SlowPID.xPid_i, SlowPID.xPid_d, SlowPID.xPid_f);
-                yPid = new SonicPIDFController(SlowPID.yPid_p, SlowPID.yPid_i, SlowPID.yPid_d, SlowPID.yPid_f);
-                hPid = new SonicPIDFController(SlowPID.hPid_p, SlowPID.hPid_i, SlowPID.hPid_d, SlowPID.hPid_f);
+                xPid = createPid(SlowPID.xPid_p, SlowPID.xPid_i, SlowPID.xPid_d, SlowPID.xPid_f);
+                yPid = createPid(SlowPID.yPid_p, SlowPID.yPid_i, SlowPID.yPid_d, SlowPID.yPid_f);
+                hPid = createPid(SlowPID.hPid_p, SlowPID.hPid_i, SlowPID.hPid_d, SlowPID.hPid_f);
                 break;
         }
-        xPid = new SonicPIDFController(FastPID.xPid_p, FastPID.xPid_i, FastPID.xPid_d, FastPID.xPid_f);
-        yPid = new SonicPIDFController(FastPID.yPid_p, FastPID.yPid_i, FastPID.yPid_d, FastPID.yPid_f);
-        hPid = new SonicPIDFController(FastPID.hPid_p, FastPID.hPid_i, FastPID.hPid_d, FastPID.hPid_f);
+        xPid = createPid(FastPID.xPid_p, FastPID.xPid_i, FastPID.xPid_d, FastPID.xPid_f);
+        yPid = createPid(FastPID.yPid_p, FastPID.yPid_i, FastPID.yPid_d, FastPID.yPid_f);
+        hPid = createPid(FastPID.hPid_p, FastPID.hPid_i, FastPID.hPid_d, FastPID.hPid_f);
 
         addRequirements(driveTrain);
     }
 
+    private static LoopPIDFController createPid(double p, double i, double d, double f) {
+        return new LoopPIDFController(p, i, d, f)
+                .withIntegralLimit(PIDLimits.IntegralLimit)
+                .withDerivativeFilter(PIDLimits.DerivativeFilterSeconds);
+    }
 
     @Override
-    public void doExecute() {
-        pinpoint.update();
-
-        boolean addTelemetry = false;
+    protected void firstTimeExecute() {
+        xPid.reset();
+        yPid.reset();
+        hPid.reset();
+    }
 
-        if(addTelemetry) {
-            telemetry.addData("DriveToTarget tx: ", targetX);
-            telemetry.addData("DriveToTarget ty: ", targetY);
-            telemetry.addData("DriveToTarget th: ", targetHeading);
 
-            telemetry.addData("DriveToTarget x mm: ", pinpoint.getPosX(DISTANCE_UNIT));
-            telemetry.addData("DriveToTarget y mm: ", pinpoint.getPosY(DISTANCE_UNIT));
-            telemetry.addData("DriveToTarget heading degrees: ", Math.toDegrees(pinpoint.getHeading(ANGLE_UNIT)));
-        }
+    @Override
+    public void doExecute() {
+        pinpoint.update();
 
-        Log.i(LOG_TAG, String.format("tx=%f, ty=%f, x=%f, y=%f, heading=%f", targetX, targetY, pinpoint.getPosX(DISTANCE_UNIT), pinpoint.getPosY(DISTANCE_UNIT), Math.toDegrees(pinpoint.getHeading(ANGLE_UNIT))));
+        targetXSignal.set(targetX);
+        targetYSignal.set(targetY);
+        targetHeadingSignal.set(targetHeading);
+        xSignal.set(pinpoint.getPosX(DISTANCE_UNIT));
+        ySignal.set(pinpoint.getPosY(DISTANCE_UNIT));
+        headingSignal.set(Math.toDegrees(pinpoint.getHeading(ANGLE_UNIT)));
+        doneSignal.set(false);
 
         if(isTargetReached()) {
             // Give a 200ms to identify overshoot
@@ -177,10 +208,7 @@ public class DriveToTargetCommand extends SounderBotCommandBase {
 
             if(isTargetReached()) {
 
-                if(addTelemetry) {
-                    telemetry.addLine("Done");
-                }
-
+                doneSignal.set(true);
                 finished = true;
                 return;
             }
@@ -189,15 +217,13 @@ public class DriveToTargetCommand extends SounderBotCommandBase {
         pinpoint.update();
 
         // Battery reading of 13.49 required a Kp of 0.015
-        double x = xPid.calculatePIDAlgorithm(targetX - pinpoint.getPosX(DISTANCE_UNIT)) * xSpeedScale;
-        double y = yPid.calculatePIDAlgorithm(targetY - pinpoint.getPosY(DISTANCE_UNIT)) * ySpeedScale;
-        double h = hPid.calculatePIDAlgorithm(targetHeading - pinpoint.getHeading(ANGLE_UNIT));
+        double x = xPid.calculate(targetX, pinpoint.getPosX(DISTANCE_UNIT)) * xSpeedScale;
+        double y = yPid.calculate(targetY, pinpoint.getPosY(DISTANCE_UNIT)) * ySpeedScale;
+        double h = hPid.calculate(targetHeading, pinpoint.getHeading(ANGLE_UNIT));
 
-        onFlagEnabled(addTelemetry, () -> {
-            telemetry.addData("drive to target xPid output", x);
-            telemetry.addData("drive to target yPid output", y);
-            telemetry.addData("drive to target hPid output", h);
-        });
+        xPidSignal.set(x);
+        yPidSignal.set(y);
+        hPidSignal.set(h);
 
 
         double botHeading = pinpoint.getHeading(ANGLE_UNIT);
@@ -222,24 +248,20 @@ public class DriveToTargetCommand extends SounderBotCommandBase {
             backLeftPower = maxPower * backLeftPower / max;
             backRightPower = maxPower * backRightPower / max;
         }
-        else if (max > 0 && max < minPower) {
-            // Proportionally increase power in all motors until max wheel power is enough
-            double proportion = minPower / max;
+        else if (max > 0 && max < minPower * BatteryVoltage.get().getCompensation()) {
+            // Proportionally increase power in all motors until max wheel power is enough. The
+            // minimum is a static friction term, so it follows the battery voltage
+            double proportion = minPower * BatteryVoltage.get().getCompensation() / max;
             frontLeftPower = Math.max(-1.0, Math.min(frontLeftPower * proportion, 1.0));
             frontRightPower = Math.max(-1.0, Math.min(frontRightPower * proportion, 1.0));
             backLeftPower = Math.max(-1.0, Math.min(backLeftPower * proportion, 1.0));
             backRightPower = Math.max(-1.0, Math.min(backRightPower * proportion, 1.0));
         }
 
-        Log.i(LOG_TAG, String.format("Wheels power: fL: %f, fR: %f, bL: %f, bR: %f", frontLeftPower, frontRightPower, backLeftPower, backRightPower));
-
-        if(addTelemetry) {
-            telemetry.addData("frontLeft power", frontLeftPower);
-            telemetry.addData("frontRight power", frontRightPower);
-            telemetry.addData("backLeft power", backLeftPower);
-            telemetry.addData("backRight power", backRightPower);
-            telemetry.update();
-        }
+        frontLeftSignal.set(frontLeftPower);
+        frontRightSignal.set(frontRightPower);
+        backLeftSignal.set(backLeftPower);
+        backRightSignal.set(backRightPower);
 
         driveTrain.setWheelsPower(frontLeftPower, frontRightPower, backLeftPower, backRightPower);
     }
@@ -51,6 +51,7 @@ public class IntakeObeliskObservedRowsCommand extends SounderBotCommandBase{
                         getRowEndingPosition(row),
                         getIntakeDriveTrainPower(),
                         getRowShootingPosition(row),
+                        positions.getGoalPosition(),
                         shootRange,
                         row,
                         true
@@ -5,6 +5,7 @@ import android.util.Log;
 import org.firstinspires.ftc.teamcode.common.AprilTagEnum;
 import org.firstinspires.ftc.teamcode.opmodes.auton.constants.RowsOnFloor;
 import org.firstinspires.ftc.teamcode.subsystems.vision.LimeLightAlign;
+import org.firstinspires.ftc.teamcode.subsystems.vision.VisionConsumer;
 
 import java.util.Optional;
 
@@ -21,6 +22,22 @@ public class ObserveObeliskCommand extends SounderBotCommandBase {
         this.observed = false;
     }
 
+    @Override
+    public void initialize() {
+        super.initialize();
+        if (limeLight != null) {
+            limeLight.requestPipeline(VisionConsumer.OBELISK);
+        }
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        super.end(interrupted);
+        if (limeLight != null) {
+            limeLight.releasePipeline(VisionConsumer.OBELISK);
+        }
+    }
+
     @Override
     protected void doExecute() {
         if (limeLight == null) {
@@ -5,6 +5,7 @@ import android.util.Log;
 import com.arcrobotics.ftclib.command.CommandBase;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.util.LoopProfiler;
 
 public abstract class SounderBotCommandBase extends CommandBase {
     private static final String LOG_TAG = SounderBotCommandBase.class.getSimpleName();
@@ -15,6 +16,8 @@ public abstract class SounderBotCommandBase extends CommandBase {
 
     Telemetry telemetry;
 
+    private final int profilerSection = LoopProfiler.get().section(getClass().getSimpleName());
+
     public SounderBotCommandBase(long timeOut) {
         TIME_OUT_MS = timeOut;
     }
@@ -26,6 +29,13 @@ public abstract class SounderBotCommandBase extends CommandBase {
 
     @Override
     public final void execute() {
+        LoopProfiler profiler = LoopProfiler.get();
+        long profileStart = profiler.start();
+        runExecute();
+        profiler.stop(profilerSection, profileStart);
+    }
+
+    private void runExecute() {
         if (startTime < 0) {
             startTime = System.currentTimeMillis();
             firstTimeExecute();
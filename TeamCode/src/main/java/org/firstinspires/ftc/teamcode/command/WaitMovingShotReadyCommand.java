@@ -0,0 +1,107 @@
+package org.firstinspires.ftc.teamcode.command;
+
+import com.pedropathing.follower.Follower;
+import com.pedropathing.geometry.Pose;
+import com.pedropathing.math.Vector;
+
+import org.firstinspires.ftc.teamcode.signals.Signal;
+import org.firstinspires.ftc.teamcode.signals.SignalBus;
+import org.firstinspires.ftc.teamcode.subsystems.scoring.MovingShotSolver;
+import org.firstinspires.ftc.teamcode.subsystems.scoring.MovingShotSolver.MovingShotConfig;
+import org.firstinspires.ftc.teamcode.subsystems.scoring.Shooter;
+import org.firstinspires.ftc.teamcode.util.PoseHistory;
+
+/**
+ * Runs next to the drive into a shooting pose. Every loop the shot is solved from the follower pose
+ * and velocity, and the shooter is pointed at the solved distance; the command ends, letting the
+ * feed start, as soon as the flywheels are at speed and the robot is slow enough, no longer
+ * speeding up and within tolerance of the lead-adjusted aim heading. A robot that has stopped
+ * is treated like the settled robot of {@link CommandFactory#loadAndShoot}.
+ *
+ * The shooting poses are tuned by hand, so their headings carry a fixed offset from the geometric
+ * bearing to the goal (shooter and camera are not on the robot center line). That offset is
+ * measured at the target pose and applied to the solved aim heading.
+ *
+ * The shooter keeps using the solved distance after the command ends, until
+ * {@link Shooter#clearShotDistance()}.
+ */
+public class WaitMovingShotReadyCommand extends SounderBotCommandBase {
+
+    private final Follower follower;
+    private final Shooter shooter;
+    private final Pose goal;
+    private final double headingOffset;
+    private final MovingShotSolver solver = new MovingShotSolver();
+
+    private double lastSpeed = Double.NaN;
+    private long stoppedSince = -1;
+    private boolean ready;
+
+    private final Signal distanceSignal = SignalBus.get().addDouble("MovingShot", "Distance");
+    private final Signal leadSignal = SignalBus.get().addDouble("MovingShot", "LeadDegrees");
+    private final Signal aimErrorSignal = SignalBus.get().addDouble("MovingShot", "AimErrorDegrees");
+    private final Signal speedSignal = SignalBus.get().addDouble("MovingShot", "Speed");
+    private final Signal feedReadySignal = SignalBus.get().addBoolean("MovingShot", "FeedReady");
+
+    public WaitMovingShotReadyCommand(long timeOut, Follower follower, Shooter shooter, Pose goal, Pose shootingPose) {
+        super(timeOut);
+        this.follower = follower;
+        this.shooter = shooter;
+        this.goal = goal;
+        this.headingOffset = PoseHistory.angleDifference(shootingPose.getHeading(),
+                Math.atan2(goal.getY() - shootingPose.getY(), goal.getX() - shootingPose.getX()));
+    }
+
+    @Override
+    public void initialize() {
+        super.initialize();
+        lastSpeed = Double.NaN;
+        stoppedSince = -1;
+        ready = false;
+    }
+
+    @Override
+    protected void doExecute() {
+        Pose pose = follower.getPose();
+        Vector velocity = follower.getVelocity();
+        double speed = velocity.getMagnitude();
+        solver.solve(pose.getX(), pose.getY(),
+                speed * Math.cos(velocity.getTheta()), speed * Math.sin(velocity.getTheta()),
+                goal.getX(), goal.getY());
+        shooter.setShotDistance(solver.getDistance());
+
+        double aimError = PoseHistory.angleDifference(solver.getAimHeading() + headingOffset, pose.getHeading());
+        long now = System.currentTimeMillis();
+        if (speed >= MovingShotConfig.StoppedSpeedInchesPerSecond) {
+            stoppedSince = -1;
+        } else if (stoppedSince < 0) {
+            stoppedSince = now;
+        }
+        boolean decelerating = speed < MovingShotConfig.MaxFeedSpeedInchesPerSecond && speed <= lastSpeed
+                && Math.abs(Math.toDegrees(aimError)) < MovingShotConfig.MaxAimErrorDegrees;
+        // Once stopped at the tuned pose this is the old stationary gate, including its timeout
+        boolean stopped = stoppedSince >= 0;
+        ready = (stopped || decelerating) && shooter.isReadyToFeed()
+                || stopped && now - stoppedSince > CommandFactory.DEFAULT_TIME_OUT;
+        lastSpeed = speed;
+
+        distanceSignal.set(solver.getDistance());
+        leadSignal.set(Math.toDegrees(solver.getLeadAngle()));
+        aimErrorSignal.set(Math.toDegrees(aimError));
+        speedSignal.set(speed);
+        feedReadySignal.set(ready);
+    }
+
+    @Override
+    protected boolean isTargetReached() {
+        return ready;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        super.end(interrupted);
+        if (!interrupted) {
+            shooter.recordFeedStart();
+        }
+    }
+}
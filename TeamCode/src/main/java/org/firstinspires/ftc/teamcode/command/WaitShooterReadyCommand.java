@@ -18,6 +18,15 @@ public class WaitShooterReadyCommand extends SounderBotCommandBase {
 
     @Override
     protected boolean isTargetReached() {
-        return shooter.isReadyToShoot();
+        return shooter.isReadyToFeed();
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        super.end(interrupted);
+        if (!interrupted) {
+            // Feeding follows, on readiness or on the timeout
+            shooter.recordFeedStart();
+        }
     }
 }
@@ -0,0 +1,35 @@
+package org.firstinspires.ftc.teamcode.command;
+
+import org.firstinspires.ftc.teamcode.subsystems.scoring.Shooter;
+
+/**
+ * Ends once the shooter detected the given number of shots after the command started, or at the
+ * timeout when a ball was missed or never fed.
+ */
+public class WaitShotsCommand extends SounderBotCommandBase {
+
+    private final Shooter shooter;
+    private final int shots;
+    private int startCount;
+
+    public WaitShotsCommand(long timeOut, Shooter shooter, int shots) {
+        super(timeOut);
+        this.shooter = shooter;
+        this.shots = shots;
+    }
+
+    @Override
+    protected void firstTimeExecute() {
+        startCount = shooter.getShotCount();
+    }
+
+    @Override
+    protected void doExecute() {
+        // do nothing
+    }
+
+    @Override
+    protected boolean isTargetReached() {
+        return startTime >= 0 && shooter.getShotCount() - startCount >= shots;
+    }
+}
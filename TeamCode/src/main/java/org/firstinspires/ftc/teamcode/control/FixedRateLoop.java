@@ -0,0 +1,169 @@
+package org.firstinspires.ftc.teamcode.control;
+
+import android.util.Log;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.bylazar.configurables.annotations.Configurable;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.datalogger.SamplingPolicy;
+import org.firstinspires.ftc.teamcode.signals.Signal;
+import org.firstinspires.ftc.teamcode.signals.SignalBus;
+import org.firstinspires.ftc.teamcode.util.LoopProfiler;
+
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Opt-in fixed loop rate. The opmode base classes call {@link #awaitNextPeriod()} at the top of
+ * every loop; when enabled it waits for the next multiple of the period, parking the thread until
+ * SpinMicros before the deadline and spinning the rest (parking alone wakes up too late by up to a
+ * scheduler tick).
+ *
+ * The returned timestamp is the scheduled start of the loop, not when the thread woke up, so the
+ * {@link LoopClock} and every controller on it step by exactly one period. A loop that overran
+ * skips the periods it missed and steps by a whole number of periods.
+ *
+ * Jitter (wake-up minus schedule), wait time and overruns are published under "Loop", recorded
+ * in the LoopProfiler when that is enabled, and summarized to logcat when the opmode ends.
+ */
+public final class FixedRateLoop {
+
+    private static final String LOG_TAG = FixedRateLoop.class.getSimpleName();
+
+    @Config
+    @Configurable
+    public static class FixedRateConfig {
+        // Read when the opmode initializes
+        public static boolean Enabled = false;
+
+        public static double FrequencyHz = 100;
+
+        public static long SpinMicros = 1000;
+    }
+
+    public static final String JITTER = "LoopJitter";
+    public static final String WAIT = "LoopWait";
+
+    private static FixedRateLoop instance = new FixedRateLoop(false);
+
+    private final boolean enabled;
+    private final long periodNanos;
+    private final long spinNanos;
+    private final int jitterSection, waitSection;
+    private final Signal jitterSignal, waitSignal, overrunSignal;
+
+    private long nextNanos;
+    private long loops;
+    private long overruns;
+    private long skippedPeriods;
+    private long totalJitterNanos;
+    private long maxJitterNanos;
+
+    private FixedRateLoop(boolean enabled) {
+        this.enabled = enabled && FixedRateConfig.FrequencyHz > 0;
+        this.periodNanos = this.enabled ? (long) (1.0E9 / FixedRateConfig.FrequencyHz) : 0;
+        this.spinNanos = FixedRateConfig.SpinMicros * 1000;
+        if (this.enabled) {
+            LoopProfiler profiler = LoopProfiler.get();
+            jitterSection = profiler.section(JITTER);
+            waitSection = profiler.section(WAIT);
+            SignalBus signals = SignalBus.get();
+            jitterSignal = signals.addDouble("Loop", "JitterUs");
+            waitSignal = signals.addDouble("Loop", "WaitUs");
+            overrunSignal = signals.addDouble("Loop", "Overruns").withLogPolicy(SamplingPolicy.onChange(0));
+        } else {
+            jitterSection = waitSection = -1;
+            jitterSignal = waitSignal = overrunSignal = null;
+        }
+    }
+
+    public static FixedRateLoop get() {
+        return instance;
+    }
+
+    /**
+     * Starts the loop timing for the opmode that is initializing, enabled by
+     * {@link FixedRateConfig#Enabled}. Called after {@link SignalBus#reset()} and
+     * {@link LoopProfiler#reset()}.
+     */
+    public static void reset() {
+        instance = new FixedRateLoop(FixedRateConfig.Enabled);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Loop period in seconds, 0 when the loop runs free. */
+    public double getPeriodSeconds() {
+        return periodNanos / 1.0E9;
+    }
+
+    /**
+     * Waits for the start of the next period and returns its scheduled time. Returns the current
+     * time right away when disabled.
+     */
+    public long awaitNextPeriod() {
+        long now = System.nanoTime();
+        if (!enabled) {
+            return now;
+        }
+        if (nextNanos == 0) {
+            nextNanos = now;
+            loops++;
+            return nextNanos;
+        }
+
+        nextNanos += periodNanos;
+        long waitStart = now;
+        if (now > nextNanos) {
+            // The last loop took longer than a period, run now in the slot that already started
+            overruns++;
+            long missed = (now - nextNanos) / periodNanos;
+            skippedPeriods += missed;
+            nextNanos += missed * periodNanos;
+        } else {
+            long remaining;
+            while ((remaining = nextNanos - System.nanoTime()) > spinNanos) {
+                LockSupport.parkNanos(remaining - spinNanos);
+            }
+            while (System.nanoTime() < nextNanos) {
+                // Spin the last stretch
+            }
+        }
+
+        long woke = System.nanoTime();
+        long jitter = woke - nextNanos;
+        loops++;
+        totalJitterNanos += jitter;
+        maxJitterNanos = Math.max(maxJitterNanos, jitter);
+
+        LoopProfiler profiler = LoopProfiler.get();
+        profiler.stop(jitterSection, nextNanos);
+        profiler.stop(waitSection, waitStart);
+        jitterSignal.set(jitter / 1000.0);
+        waitSignal.set((woke - waitStart) / 1000.0);
+        overrunSignal.set(overruns);
+        return nextNanos;
+    }
+
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /** Writes the jitter and overrun summary to logcat and telemetry. */
+    public void finish(Telemetry telemetry) {
+        if (!enabled || loops < 2) {
+            return;
+        }
+        String line = String.format(Locale.US, "%.0f Hz: loops=%d overruns=%d skipped=%d jitter mean=%.0f max=%.0f us",
+                FixedRateConfig.FrequencyHz, loops, overruns, skippedPeriods,
+                totalJitterNanos / 1000.0 / (loops - 1), maxJitterNanos / 1000.0);
+        Log.i(LOG_TAG, line);
+        if (telemetry != null) {
+            telemetry.addLine(line);
+            telemetry.update();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * One timestamp per loop. The opmode base classes tick it before the scheduler runs, so every
+ * controller in the same loop sees the same time and the clock is read once instead of once per
+ * controller call.
+ *
+ * With the {@link FixedRateLoop} enabled the loop time is the scheduled start of the loop, so the
+ * time step is a whole number of periods whatever the wake-up jitter.
+ *
+ * Opmodes that do not extend the base classes never tick, then {@link #nanos()} reads
+ * System.nanoTime() on every call.
+ */
+public final class LoopClock {
+
+    private static LoopClock instance = new LoopClock();
+
+    private long nanos;
+    private long previousNanos;
+    private long loops;
+
+    private LoopClock() {
+    }
+
+    public static LoopClock get() {
+        return instance;
+    }
+
+    /** Called by the opmode base classes when the opmode initializes. */
+    public static void reset() {
+        instance = new LoopClock();
+    }
+
+    /** Sets the time for this loop, System.nanoTime() based. */
+    public void tick(long loopNanos) {
+        previousNanos = nanos;
+        nanos = loopNanos;
+        loops++;
+    }
+
+    /** System.nanoTime() at the start of the current loop. */
+    public long nanos() {
+        return loops == 0 ? System.nanoTime() : nanos;
+    }
+
+    /** Time since the previous loop in seconds, 0 in the first loop. */
+    public double getDtSeconds() {
+        return loops < 2 ? 0 : (nanos - previousNanos) / 1.0E9;
+    }
+
+    public long getLoopCount() {
+        return loops;
+    }
+}
@@ -0,0 +1,144 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * PIDF controller on the {@link LoopClock} timestamp.
+ *
+ * <ul>
+ *     <li>The first call after construction or {@link #reset()} only records the error, there is no
+ *     time step to integrate or differentiate over yet.</li>
+ *     <li>A second call in the same loop sees no time step either; it applies the new proportional
+ *     term with the integral and derivative of the last step, instead of dividing by zero.</li>
+ *     <li>The time step used for the integral is capped at MaxDtSeconds, so a stalled loop does not
+ *     wind the integral up, and the integral term is clamped to IntegralLimit (output units).</li>
+ *     <li>The derivative goes through a first-order low-pass with time constant
+ *     DerivativeFilterSeconds, 0 leaves it unfiltered.</li>
+ *     <li>{@link #calculate(double, double)} resets integral and derivative when the setpoint moves
+ *     by more than SetpointResetTolerance, so a new target does not start with the old one's
+ *     integral or a derivative kick.</li>
+ * </ul>
+ *
+ * No allocation after construction.
+ */
+public class LoopPIDFController {
+
+    private static final long NO_SAMPLE = Long.MIN_VALUE;
+
+    private double kp, ki, kd, kf;
+
+    private double integralLimit = 1;
+    private double maxDtSeconds = 0.1;
+    private double derivativeFilterSeconds = 0;
+    private double setpointResetTolerance = 1.0E-9;
+
+    private double integral;
+    private double derivative;
+    private double previousError;
+    private long lastNanos = NO_SAMPLE;
+
+    private double lastSetpoint = Double.NaN;
+
+    public LoopPIDFController(double kp, double ki, double kd) {
+        this(kp, ki, kd, 0);
+    }
+
+    public LoopPIDFController(double kp, double ki, double kd, double kf) {
+        setGains(kp, ki, kd, kf);
+    }
+
+    public LoopPIDFController withIntegralLimit(double integralLimit) {
+        this.integralLimit = Math.abs(integralLimit);
+        return this;
+    }
+
+    public LoopPIDFController withMaxDt(double maxDtSeconds) {
+        this.maxDtSeconds = maxDtSeconds;
+        return this;
+    }
+
+    public LoopPIDFController withDerivativeFilter(double derivativeFilterSeconds) {
+        this.derivativeFilterSeconds = derivativeFilterSeconds;
+        return this;
+    }
+
+    public LoopPIDFController withSetpointResetTolerance(double setpointResetTolerance) {
+        this.setpointResetTolerance = setpointResetTolerance;
+        return this;
+    }
+
+    public void setGains(double kp, double ki, double kd, double kf) {
+        this.kp = kp;
+        this.ki = ki;
+        this.kd = kd;
+        this.kf = kf;
+    }
+
+    /** Output for the current loop, error is setpoint minus measurement. */
+    public double calculate(double error) {
+        return update(error, LoopClock.get().nanos());
+    }
+
+    /** Output for the current loop, restarts the controller first when the setpoint moved. */
+    public double calculate(double setpoint, double measurement) {
+        if (Math.abs(setpoint - lastSetpoint) > setpointResetTolerance) {
+            reset();
+        }
+        lastSetpoint = setpoint;
+        return calculate(setpoint - measurement);
+    }
+
+    /**
+     * Output for an error measured at nowNanos. {@link #calculate(double)} passes the loop time;
+     * replaying a recorded log passes the logged timestamps.
+     */
+    public double update(double error, long nowNanos) {
+        if (lastNanos == NO_SAMPLE) {
+            lastNanos = nowNanos;
+        } else if (nowNanos > lastNanos) {
+            double dt = (nowNanos - lastNanos) / 1.0E9;
+            double rawDerivative = (error - previousError) / dt;
+            derivative = derivativeFilterSeconds > 0
+                    ? derivative + dt / (derivativeFilterSeconds + dt) * (rawDerivative - derivative)
+                    : rawDerivative;
+
+            integral += error * Math.min(dt, maxDtSeconds);
+            if (ki != 0) {
+                double bound = integralLimit / Math.abs(ki);
+                integral = Math.max(-bound, Math.min(bound, integral));
+            }
+            lastNanos = nowNanos;
+        }
+        previousError = error;
+        return kp * error + ki * integral + kd * derivative + kf;
+    }
+
+    /** Forgets integral, derivative and the last sample; the setpoint is kept. */
+    public void reset() {
+        integral = 0;
+        derivative = 0;
+        lastNanos = NO_SAMPLE;
+    }
+
+    public double getIntegral() {
+        return integral;
+    }
+
+    public double getDerivative() {
+        return derivative;
+    }
+
+    public double getKp() {
+        return kp;
+    }
+
+    public double getKi() {
+        return ki;
+    }
+
+    public double getKd() {
+        return kd;
+    }
+
+    public double getKf() {
+        return kf;
+    }
+}
@@ -0,0 +1,202 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves all file I/O off the robot loop. {@link #writeRow} only copies the values into a
+ * preallocated single-producer/single-consumer ring, a dedicated thread drains the ring into
+ * the wrapped writer. If the ring is full the sample is dropped and counted instead of blocking
+ * the loop; the count is written as a comment when the log is closed.
+ *
+ * writeRow/writeComment must always be called from the same thread (the opmode thread).
+ */
+class AsyncLogWriter implements LogWriter {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final LogWriter delegate;
+    private final int capacity;
+    private final int mask;
+
+    private int width;
+    private double[] values;
+    private double[] rowBuffer;
+    private final double[] timestamps;
+    private final int[] counts;
+    private final long[] presentMasks;
+    private final String[] comments;
+
+    // head: next slot the writer thread reads, tail: next slot the loop thread fills
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private long cachedHead;
+
+    private long dropped;
+    private double lastTimestamp;
+
+    private volatile boolean closing;
+    private volatile IOException failure;
+    private Thread thread;
+
+    /**
+     * @param capacity ring size in rows, rounded up to a power of two
+     */
+    AsyncLogWriter(LogWriter delegate, int capacity) {
+        this.delegate = delegate;
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.timestamps = new double[this.capacity];
+        this.counts = new int[this.capacity];
+        this.presentMasks = new long[this.capacity];
+        this.comments = new String[this.capacity];
+    }
+
+    @Override
+    public void writeHeader(String[] columns, LogChannel.Type[] types) throws IOException {
+        // Written synchronously during init, before the writer thread exists
+        delegate.writeHeader(columns, types);
+        width = columns.length;
+        values = new double[capacity * width];
+        rowBuffer = new double[width];
+
+        thread = new Thread(this::drainLoop, "DataLoggerWriter");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        thread.start();
+    }
+
+    @Override
+    public void writeRow(double timestamp, double[] row, int count) throws IOException {
+        writeSparseRow(timestamp, row, count, LogWriter.allColumns(count));
+    }
+
+    @Override
+    public void writeSparseRow(double timestamp, double[] row, int count, long present) throws IOException {
+        long t = tail.get();
+        if (!claim(t)) {
+            return;
+        }
+        int slot = (int) (t & mask);
+        int n = Math.min(count, width);
+        System.arraycopy(row, 0, values, slot * width, n);
+        timestamps[slot] = timestamp;
+        counts[slot] = n;
+        presentMasks[slot] = present;
+        comments[slot] = null;
+        tail.lazySet(t + 1);
+        lastTimestamp = timestamp;
+    }
+
+    @Override
+    public void writeComment(double timestamp, String message) throws IOException {
+        long t = tail.get();
+        if (!claim(t)) {
+            return;
+        }
+        int slot = (int) (t & mask);
+        timestamps[slot] = timestamp;
+        counts[slot] = 0;
+        comments[slot] = message;
+        tail.lazySet(t + 1);
+        lastTimestamp = timestamp;
+    }
+
+    /**
+     * Drains everything accepted so far, then closes the wrapped writer.
+     */
+    @Override
+    public void close() throws IOException {
+        closing = true;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            boolean interrupted = false;
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    // The opmode is stopping, but the accepted samples still have to reach the file
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        try {
+            delegate.writeComment(lastTimestamp, "AsyncWriter: dropped " + dropped + " samples (ring capacity " + capacity + ")");
+        } finally {
+            delegate.close();
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    long getDroppedCount() {
+        return dropped;
+    }
+
+    private boolean claim(long t) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (t - cachedHead >= capacity) {
+            cachedHead = head.get();
+            if (t - cachedHead >= capacity) {
+                dropped++;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void drainLoop() {
+        while (true) {
+            // Read the flag before draining so nothing published before close() is missed
+            boolean finalPass = closing;
+            int drained = drainAvailable();
+            if (finalPass && head.get() == tail.get()) {
+                return;
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private int drainAvailable() {
+        long h = head.get();
+        long t = tail.get();
+        int drained = 0;
+        while (h < t) {
+            int slot = (int) (h & mask);
+            if (failure == null) {
+                try {
+                    if (comments[slot] != null) {
+                        delegate.writeComment(timestamps[slot], comments[slot]);
+                    } else {
+                        writeSlot(slot);
+                    }
+                } catch (IOException e) {
+                    System.out.println("DataLogger ERROR: async write failed: " + e.getMessage());
+                    failure = e;
+                }
+            }
+            comments[slot] = null;
+            h++;
+            drained++;
+            head.lazySet(h);
+        }
+        return drained;
+    }
+
+    private void writeSlot(int slot) throws IOException {
+        System.arraycopy(values, slot * width, rowBuffer, 0, counts[slot]);
+        delegate.writeSparseRow(timestamps[slot], rowBuffer, counts[slot], presentMasks[slot]);
+    }
+}
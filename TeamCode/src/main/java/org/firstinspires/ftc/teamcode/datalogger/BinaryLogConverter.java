@@ -0,0 +1,198 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Turns binary DataLogger files back into the CSV layout written by {@link CsvLogWriter}, so the
+ * AnalysisServer and the LogAnalysis scripts keep working unchanged.
+ *
+ * Pure Java on purpose. From the repo root:
+ * <pre>
+ * javac -sourcepath TeamCode/src/main/java -d out TeamCode/src/main/java/org/firstinspires/ftc/teamcode/datalogger/BinaryLogConverter.java
+ * java -cp out org.firstinspires.ftc.teamcode.datalogger.BinaryLogConverter logs/*.sblog
+ * </pre>
+ */
+public final class BinaryLogConverter {
+
+    private BinaryLogConverter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: BinaryLogConverter <file.sblog | file.sblog.gz | file_000.sbseg> [more files...]");
+            System.exit(1);
+        }
+
+        Set<String> convertedSegmentLogs = new HashSet<>();
+        for (String path : args) {
+            File input = new File(path);
+            if (input.getName().endsWith(BinaryLogFormat.SEGMENT_EXTENSION)) {
+                // All segments of one log become a single CSV
+                String baseName = BinaryLogSegments.baseName(input);
+                if (!convertedSegmentLogs.add(new File(input.getAbsoluteFile().getParentFile(), baseName).getPath())) {
+                    continue;
+                }
+                File[] segments = BinaryLogSegments.siblings(input);
+                File output = new File(input.getAbsoluteFile().getParentFile(), baseName + ".csv");
+                try (Writer out = new BufferedWriter(new FileWriter(output))) {
+                    int rows = convert(BinaryLogSegments.readPayload(segments), out);
+                    System.out.println(segments.length + " segments of " + baseName + " -> " + output.getName() + " (" + rows + " rows)");
+                }
+                continue;
+            }
+
+            // Closed logs are gzipped on the robot (name.sblog.gz)
+            boolean gzipped = input.getName().endsWith(".gz");
+            String name = gzipped ? stripExtension(input.getName()) : input.getName();
+            File output = new File(input.getAbsoluteFile().getParentFile(), stripExtension(name) + ".csv");
+            try (InputStream in = gzipped ? new GZIPInputStream(new FileInputStream(input)) : new FileInputStream(input);
+                 Writer out = new BufferedWriter(new FileWriter(output))) {
+                int rows = convert(in, out);
+                System.out.println(input.getName() + " -> " + output.getName() + " (" + rows + " rows)");
+            }
+        }
+    }
+
+    /**
+     * Converts one binary log. A truncated final record (e.g. the robot lost power mid write) is dropped.
+     *
+     * @return the number of data rows written
+     */
+    public static int convert(InputStream in, Writer out) throws IOException {
+        return convert(ByteBuffer.wrap(readFully(in)).order(BinaryLogFormat.BYTE_ORDER), out);
+    }
+
+    /**
+     * Converts a binary log stream that is already in memory (e.g. joined segments).
+     *
+     * @return the number of data rows written
+     */
+    public static int convert(ByteBuffer buffer, Writer out) throws IOException {
+        PrintWriter writer = new PrintWriter(out);
+
+        if (buffer.remaining() < 9 || buffer.getInt() != BinaryLogFormat.MAGIC) {
+            throw new IOException("Not a DataLogger binary file");
+        }
+        short version = buffer.getShort();
+        if (version < BinaryLogFormat.MIN_VERSION || version > BinaryLogFormat.VERSION) {
+            throw new IOException("Unsupported DataLogger binary version " + version);
+        }
+        int valueWidth = buffer.get();
+        int columnCount = buffer.getShort() & 0xFFFF;
+
+        StringBuilder line = new StringBuilder("# Timestamp");
+        LogChannel.Type[] types = new LogChannel.Type[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            line.append(",").append(readString(buffer));
+            types[i] = version >= BinaryLogFormat.TYPED_COLUMNS_VERSION ? readType(buffer) : LogChannel.Type.DOUBLE;
+        }
+        writer.println(line);
+        char[] number = new char[LogNumberFormat.MAX_CHARS];
+
+        // Sparse rows only carry the sampled columns, the rest are forward-filled from earlier rows
+        double[] held = new double[columnCount];
+        boolean[] seen = new boolean[columnCount];
+        boolean floatValues = valueWidth == BinaryLogFormat.FLOAT_WIDTH;
+
+        int rows = 0;
+        try {
+            while (buffer.hasRemaining()) {
+                byte type = buffer.get();
+                double timestamp = buffer.getDouble();
+                if (type == BinaryLogFormat.RECORD_ROW || type == BinaryLogFormat.RECORD_SPARSE_ROW) {
+                    int count = buffer.getShort() & 0xFFFF;
+                    long present = type == BinaryLogFormat.RECORD_SPARSE_ROW ? buffer.getLong() : -1L;
+                    line.setLength(0);
+                    line.append(number, 0, LogNumberFormat.appendDouble(number, 0, timestamp));
+                    for (int i = 0; i < count; i++) {
+                        line.append(",");
+                        LogChannel.Type columnType = i < columnCount ? types[i] : LogChannel.Type.DOUBLE;
+                        boolean sampled = i >= 64 ? present == -1L : (present & (1L << i)) != 0;
+                        if (sampled) {
+                            double value = floatValues ? buffer.getFloat() : buffer.getDouble();
+                            if (i < columnCount) {
+                                held[i] = value;
+                                seen[i] = true;
+                            }
+                            appendValue(line, number, value, columnType, floatValues);
+                        } else if (i < columnCount && seen[i]) {
+                            appendValue(line, number, held[i], columnType, floatValues);
+                        }
+                    }
+                    writer.println(line);
+                    rows++;
+                } else if (type == BinaryLogFormat.RECORD_COMMENT) {
+                    String message = readString(buffer);
+                    writer.println("# " + String.format(Locale.US, "%.3f", timestamp) + " " + message);
+                } else {
+                    throw new IOException("Unknown record type " + type + " at offset " + (buffer.position() - 9));
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            // Partial last record, everything before it has been written.
+        }
+
+        writer.flush();
+        return rows;
+    }
+
+    /**
+     * Formats a value the way {@link CsvLogWriter} does for the column type, so a log reads the
+     * same whichever format it was written in.
+     */
+    private static void appendValue(StringBuilder line, char[] number, double value, LogChannel.Type type, boolean floatValues) {
+        int length;
+        if (type != LogChannel.Type.DOUBLE) {
+            length = LogNumberFormat.appendLong(number, 0, (long) value);
+        } else {
+            // Go through the shortest float text, otherwise 0.1f would print as 0.100000001
+            length = LogNumberFormat.appendDouble(number, 0, floatValues ? Double.parseDouble(Float.toString((float) value)) : value);
+        }
+        line.append(number, 0, length);
+    }
+
+    private static LogChannel.Type readType(ByteBuffer buffer) throws IOException {
+        int ordinal = buffer.get();
+        LogChannel.Type[] types = LogChannel.Type.values();
+        if (ordinal < 0 || ordinal >= types.length) {
+            throw new IOException("Unknown column type " + ordinal);
+        }
+        return types[ordinal];
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, BinaryLogFormat.CHARSET);
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[65536];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            bytes.write(chunk, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String stripExtension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+}
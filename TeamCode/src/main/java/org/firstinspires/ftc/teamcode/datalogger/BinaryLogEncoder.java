@@ -0,0 +1,114 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes records in the {@link BinaryLogFormat} layout. Subclasses decide where the bytes go:
+ * {@link #room} returns a little-endian buffer with at least the requested space, and
+ * {@link #recordWritten} is called once a complete record is in it.
+ */
+abstract class BinaryLogEncoder implements LogWriter {
+
+    private final int valueWidth;
+    private long bytesWritten;
+
+    BinaryLogEncoder(boolean floatValues) {
+        this.valueWidth = floatValues ? BinaryLogFormat.FLOAT_WIDTH : BinaryLogFormat.DOUBLE_WIDTH;
+    }
+
+    protected abstract ByteBuffer room(int bytes) throws IOException;
+
+    protected void recordWritten() throws IOException {
+    }
+
+    @Override
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void writeHeader(String[] columns, LogChannel.Type[] types) throws IOException {
+        int size = 4 + 2 + 1 + 2;
+        byte[][] names = new byte[columns.length][];
+        for (int i = 0; i < columns.length; i++) {
+            names[i] = columns[i].getBytes(BinaryLogFormat.CHARSET);
+            size += 2 + names[i].length + 1;
+        }
+
+        ByteBuffer buffer = room(size);
+        bytesWritten += size;
+        buffer.putInt(BinaryLogFormat.MAGIC);
+        buffer.putShort(BinaryLogFormat.VERSION);
+        buffer.put((byte) valueWidth);
+        buffer.putShort((short) columns.length);
+        for (int i = 0; i < names.length; i++) {
+            buffer.putShort((short) names[i].length);
+            buffer.put(names[i]);
+            LogChannel.Type type = types != null && i < types.length ? types[i] : LogChannel.Type.DOUBLE;
+            buffer.put((byte) type.ordinal());
+        }
+        recordWritten();
+    }
+
+    @Override
+    public void writeRow(double timestamp, double[] values, int count) throws IOException {
+        int size = 1 + 8 + 2 + count * valueWidth;
+        ByteBuffer buffer = room(size);
+        bytesWritten += size;
+        buffer.put(BinaryLogFormat.RECORD_ROW);
+        buffer.putDouble(timestamp);
+        buffer.putShort((short) count);
+        if (valueWidth == BinaryLogFormat.FLOAT_WIDTH) {
+            for (int i = 0; i < count; i++) {
+                buffer.putFloat((float) values[i]);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                buffer.putDouble(values[i]);
+            }
+        }
+        recordWritten();
+    }
+
+    @Override
+    public void writeSparseRow(double timestamp, double[] values, int count, long present) throws IOException {
+        if (present == LogWriter.allColumns(count)) {
+            writeRow(timestamp, values, count);
+            return;
+        }
+
+        int size = 1 + 8 + 2 + 8 + Long.bitCount(present) * valueWidth;
+        ByteBuffer buffer = room(size);
+        bytesWritten += size;
+        buffer.put(BinaryLogFormat.RECORD_SPARSE_ROW);
+        buffer.putDouble(timestamp);
+        buffer.putShort((short) count);
+        buffer.putLong(present);
+        for (int i = 0; i < count; i++) {
+            if ((present & (1L << i)) == 0) {
+                continue;
+            }
+            if (valueWidth == BinaryLogFormat.FLOAT_WIDTH) {
+                buffer.putFloat((float) values[i]);
+            } else {
+                buffer.putDouble(values[i]);
+            }
+        }
+        recordWritten();
+    }
+
+    @Override
+    public void writeComment(double timestamp, String message) throws IOException {
+        byte[] text = message.getBytes(BinaryLogFormat.CHARSET);
+        int length = Math.min(text.length, BinaryLogFormat.MAX_COMMENT_BYTES);
+        int size = 1 + 8 + 2 + length;
+        ByteBuffer buffer = room(size);
+        bytesWritten += size;
+        buffer.put(BinaryLogFormat.RECORD_COMMENT);
+        buffer.putDouble(timestamp);
+        buffer.putShort((short) length);
+        buffer.put(text, 0, length);
+        recordWritten();
+    }
+}
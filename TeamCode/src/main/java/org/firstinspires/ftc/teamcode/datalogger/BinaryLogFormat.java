@@ -0,0 +1,88 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout of the binary DataLogger files. Everything is little-endian.
+ *
+ * <pre>
+ * Header
+ *   int    MAGIC ("SBLG")
+ *   short  VERSION
+ *   byte   value width in bytes (4 = float, 8 = double)
+ *   short  column count
+ *   column count times: short length, UTF-8 name bytes, byte type (LogChannel.Type ordinal, version 3+)
+ *
+ * Records, until end of file
+ *   byte RECORD_ROW      double timestamp, short count, count values
+ *   byte RECORD_COMMENT  double timestamp, short length, UTF-8 message bytes
+ *   byte RECORD_SPARSE_ROW  double timestamp, short count, long present mask,
+ *                           one value per set bit in column order
+ * </pre>
+ *
+ * Columns missing from a sparse row keep the value of the previous row that had them.
+ *
+ * Crash-safe mode splits the same byte stream over fixed-size memory-mapped segment files
+ * (name_000.sbseg, name_001.sbseg, ...). Records never straddle two segments. Each segment
+ * starts with a SEGMENT_HEADER_BYTES header:
+ *
+ * <pre>
+ *   int    SEGMENT_MAGIC ("SBSG")
+ *   short  VERSION
+ *   short  reserved
+ *   int    segment index
+ *   int    segment size in bytes, header included
+ *   long   committed payload length, updated after every complete record
+ *   long   reserved
+ * </pre>
+ *
+ * This class must stay free of Android imports so {@link BinaryLogConverter} can run on a laptop.
+ */
+public final class BinaryLogFormat {
+
+    public static final String FILE_EXTENSION = ".sblog";
+
+    public static final int MAGIC = 0x474C4253; // "SBLG" when read as little-endian bytes
+
+    public static final short VERSION = 3;
+
+    /** First version with a type per column, older files are read as all doubles. */
+    public static final short TYPED_COLUMNS_VERSION = 3;
+
+    /** Version 1 files have no sparse rows and are still readable. */
+    public static final short MIN_VERSION = 1;
+
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    public static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    public static final byte RECORD_ROW = 1;
+
+    public static final byte RECORD_COMMENT = 2;
+
+    public static final byte RECORD_SPARSE_ROW = 3;
+
+    public static final int FLOAT_WIDTH = 4;
+
+    public static final int DOUBLE_WIDTH = 8;
+
+    public static final String SEGMENT_EXTENSION = ".sbseg";
+
+    public static final int SEGMENT_MAGIC = 0x47534253; // "SBSG"
+
+    public static final int SEGMENT_HEADER_BYTES = 32;
+
+    public static final int SEGMENT_INDEX_OFFSET = 8;
+
+    public static final int SEGMENT_SIZE_OFFSET = 12;
+
+    public static final int SEGMENT_COMMITTED_OFFSET = 16;
+
+    /** Comments longer than this are truncated so a record always fits the write buffer. */
+    public static final int MAX_COMMENT_BYTES = 4096;
+
+    private BinaryLogFormat() {
+    }
+}
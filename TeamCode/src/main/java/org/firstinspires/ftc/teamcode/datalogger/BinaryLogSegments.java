@@ -0,0 +1,81 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Reads the segment files written by the crash-safe DataLogger mode back into one binary log
+ * stream. Only the committed part of each segment is used, so a segment that was being written
+ * when the robot died yields every record up to the last complete one.
+ *
+ * Pure Java, used by {@link BinaryLogConverter}.
+ */
+public final class BinaryLogSegments {
+
+    private BinaryLogSegments() {
+    }
+
+    /**
+     * @return the log name shared by all segments, e.g. "20250101_120000_MainTeleop_ShooterLog"
+     */
+    public static String baseName(File segment) {
+        String name = segment.getName();
+        int underscore = name.lastIndexOf('_');
+        return underscore > 0 ? name.substring(0, underscore) : name;
+    }
+
+    /**
+     * Finds every segment of the log the given segment belongs to, in write order.
+     */
+    public static File[] siblings(File segment) {
+        String prefix = baseName(segment) + "_";
+        File directory = segment.getAbsoluteFile().getParentFile();
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(BinaryLogFormat.SEGMENT_EXTENSION));
+        if (files == null) {
+            return new File[] { segment };
+        }
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        return files;
+    }
+
+    /**
+     * Concatenates the committed payload of the given segments.
+     */
+    public static ByteBuffer readPayload(File[] segments) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        byte[] headerBytes = new byte[BinaryLogFormat.SEGMENT_HEADER_BYTES];
+
+        for (int expectedIndex = 0; expectedIndex < segments.length; expectedIndex++) {
+            File segment = segments[expectedIndex];
+            try (RandomAccessFile file = new RandomAccessFile(segment, "r")) {
+                if (file.length() < BinaryLogFormat.SEGMENT_HEADER_BYTES) {
+                    // Created but never written
+                    break;
+                }
+                file.readFully(headerBytes);
+                ByteBuffer header = ByteBuffer.wrap(headerBytes).order(BinaryLogFormat.BYTE_ORDER);
+                if (header.getInt(0) != BinaryLogFormat.SEGMENT_MAGIC) {
+                    throw new IOException(segment.getName() + " is not a DataLogger segment");
+                }
+                int index = header.getInt(BinaryLogFormat.SEGMENT_INDEX_OFFSET);
+                if (index != expectedIndex) {
+                    throw new IOException("Missing segment " + expectedIndex + " before " + segment.getName());
+                }
+
+                long available = file.length() - BinaryLogFormat.SEGMENT_HEADER_BYTES;
+                long committed = header.getLong(BinaryLogFormat.SEGMENT_COMMITTED_OFFSET);
+                int length = (int) Math.max(0, Math.min(committed, available));
+                byte[] bytes = new byte[length];
+                file.readFully(bytes);
+                payload.write(bytes);
+            }
+        }
+
+        return ByteBuffer.wrap(payload.toByteArray()).order(BinaryLogFormat.BYTE_ORDER);
+    }
+}
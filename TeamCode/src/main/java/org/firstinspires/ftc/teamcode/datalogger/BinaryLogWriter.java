@@ -0,0 +1,51 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes the compact format described in {@link BinaryLogFormat}. A row costs a handful of
+ * buffer puts instead of double to text conversion, and is 8 (or 4) bytes per value instead of ~20.
+ */
+class BinaryLogWriter extends BinaryLogEncoder {
+
+    private final FileOutputStream stream;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    BinaryLogWriter(File file, int bufferSize, boolean floatValues) throws IOException {
+        super(floatValues);
+        this.stream = new FileOutputStream(file);
+        this.channel = stream.getChannel();
+        this.buffer = ByteBuffer.allocateDirect(bufferSize).order(BinaryLogFormat.BYTE_ORDER);
+    }
+
+    @Override
+    protected ByteBuffer room(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+            stream.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
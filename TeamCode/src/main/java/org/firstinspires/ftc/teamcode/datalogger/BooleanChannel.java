@@ -0,0 +1,15 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+/**
+ * Logged as 1 / 0 so the analysis scripts can plot it next to the numeric columns.
+ */
+public final class BooleanChannel extends LogChannel {
+
+    BooleanChannel(String name, int index, double[] row) {
+        super(name, Type.BOOLEAN, index, row);
+    }
+
+    public void set(boolean value) {
+        row[index] = value ? 1 : 0;
+    }
+}
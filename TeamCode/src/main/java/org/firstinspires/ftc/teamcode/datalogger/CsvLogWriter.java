@@ -0,0 +1,116 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * The original text format: a "# Timestamp,..." header, one comma separated line per sample
+ * and "# t message" comment lines. This is what parser.parse_log_file and the LogAnalysis scripts read.
+ *
+ * Rows are formatted into a reused char buffer with {@link LogNumberFormat} and copied as ASCII
+ * into our own byte buffer, so writing a row does not allocate, not even when the buffer is
+ * flushed (a Writer wraps every flushed chunk in a new CharBuffer).
+ */
+class CsvLogWriter implements LogWriter {
+
+    static final String FILE_EXTENSION = ".csv";
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int buffered;
+    private char[] line = new char[1024];
+    private LogChannel.Type[] types;
+    private long bytesWritten;
+
+    CsvLogWriter(File file, int bufferSize) throws IOException {
+        out = new FileOutputStream(file);
+        buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public void writeHeader(String[] columns, LogChannel.Type[] types) throws IOException {
+        this.types = types;
+        StringBuilder headerLine = new StringBuilder("# Timestamp");
+        for (String column : columns) {
+            headerLine.append(",").append(column);
+        }
+        headerLine.append('\n');
+        writeText(headerLine.toString());
+    }
+
+    @Override
+    public void writeRow(double timestamp, double[] values, int count) throws IOException {
+        int maxLength = (count + 1) * (LogNumberFormat.MAX_CHARS + 1) + 1;
+        if (line.length < maxLength) {
+            line = new char[maxLength];
+        }
+
+        int pos = LogNumberFormat.appendDouble(line, 0, timestamp);
+        for (int i = 0; i < count; i++) {
+            line[pos++] = ',';
+            if (types != null && i < types.length && types[i] != LogChannel.Type.DOUBLE) {
+                pos = LogNumberFormat.appendLong(line, pos, (long) values[i]);
+            } else {
+                pos = LogNumberFormat.appendDouble(line, pos, values[i]);
+            }
+        }
+        line[pos++] = '\n';
+        if (buffer.length - buffered < pos) {
+            flush();
+        }
+        if (pos > buffer.length) {
+            writeText(new String(line, 0, pos));
+            return;
+        }
+        // Numbers and separators only, every char is one ASCII byte
+        for (int i = 0; i < pos; i++) {
+            buffer[buffered + i] = (byte) line[i];
+        }
+        buffered += pos;
+        bytesWritten += pos;
+    }
+
+    @Override
+    public void writeComment(double timestamp, String message) throws IOException {
+        writeText("# " + String.format(Locale.US, "%.3f", timestamp) + " " + message + "\n");
+    }
+
+    @Override
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeText(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (buffer.length - buffered < bytes.length) {
+            flush();
+        }
+        if (bytes.length > buffer.length) {
+            out.write(bytes);
+        } else {
+            System.arraycopy(bytes, 0, buffer, buffered, bytes.length);
+            buffered += bytes.length;
+        }
+        bytesWritten += bytes.length;
+    }
+
+    private void flush() throws IOException {
+        if (buffered > 0) {
+            out.write(buffer, 0, buffered);
+            buffered = 0;
+        }
+    }
+}
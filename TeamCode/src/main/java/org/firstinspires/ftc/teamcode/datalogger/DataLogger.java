@@ -8,28 +8,68 @@ import com.bylazar.configurables.annotations.Configurable;
 
 import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.PrintWriter;
+import java.io.IOException;
 import java.text.SimpleDateFormat;
-import java.util.Arrays;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
 @Config
 @Configurable
 public class DataLogger {
-    private PrintWriter writer;
+    private LogWriter writer;
     private final String fileName;
     private int maxFileCount = 10;
     private static final int BUFFER_SIZE = 65536; // 64KB
     private long startTime;
-    private final StringBuilder lineBuilder = new StringBuilder();
+    private boolean initialized = false;
+
+    // Typed channel API, see addDouble/addInt/addBoolean and commitRow
+    public static final int MAX_CHANNELS = 64;
+    private final double[] row = new double[MAX_CHANNELS];
+    // Last recorded value per channel, what a decimated channel holds between samples
+    private final double[] recorded = new double[MAX_CHANNELS];
+    private final List<LogChannel> channels = new ArrayList<>();
+
+    public enum LogFormat {
+        CSV,
+        BINARY,
+        // Binary records in memory-mapped segment files, survives the opmode being killed before close()
+        MAPPED
+    }
 
     public static boolean LogToSdCard = true;
+
+    // BINARY writes .sblog files, convert them with BinaryLogConverter before analysis
+    public static LogFormat Format = LogFormat.CSV;
+
+    // Store binary values as float instead of double, halves the file size
+    public static boolean BinaryFloatValues = false;
+
+    // Hand samples to a background writer thread so SD card stalls never block the loop
+    public static boolean AsyncWrite = false;
+
+    // Start a new part file once a CSV/BINARY log passes this size, 0 = never
+    public static int MaxFileSizeMB = 16;
+
+    // Gzip finished CSV/BINARY logs in the background after close(); gunzip before analysis
+    public static boolean CompressClosedLogs = true;
+
+    // Oldest logs are deleted in the background once all logs together exceed this, 0 = no limit
+    public static int MaxStorageMB = 512;
+
+    // Logs older than this are deleted in the background, 0 = keep forever
+    public static int MaxLogAgeDays = 30;
+
+    // Size of each preallocated MAPPED segment file
+    public static int MappedSegmentKB = 1024;
+
+    // Rows the async ring can hold before samples are dropped (~80s at 50Hz)
+    public static int AsyncBufferRows = 4096;
     
     // "AUTO" = Try external SD first, fallback to internal
     // "/sdcard" = Force internal
@@ -45,11 +85,65 @@ public class DataLogger {
         this.maxFileCount = maxFileCount;
     }
 
+    public DoubleChannel addDouble(String name) {
+        return addDouble(name, SamplingPolicy.EVERY_LOOP);
+    }
+
+    public DoubleChannel addDouble(String name, SamplingPolicy policy) {
+        return register(new DoubleChannel(name, nextChannelIndex(), row), policy);
+    }
+
+    public IntChannel addInt(String name) {
+        return addInt(name, SamplingPolicy.EVERY_LOOP);
+    }
+
+    public IntChannel addInt(String name, SamplingPolicy policy) {
+        return register(new IntChannel(name, nextChannelIndex(), row), policy);
+    }
+
+    public BooleanChannel addBoolean(String name) {
+        return addBoolean(name, SamplingPolicy.EVERY_LOOP);
+    }
+
+    public BooleanChannel addBoolean(String name, SamplingPolicy policy) {
+        return register(new BooleanChannel(name, nextChannelIndex(), row), policy);
+    }
+
+    private int nextChannelIndex() {
+        if (initialized) {
+            throw new IllegalStateException("DataLogger channels must be added before initializeLogging");
+        }
+        if (channels.size() >= MAX_CHANNELS) {
+            throw new IllegalStateException("DataLogger supports at most " + MAX_CHANNELS + " channels");
+        }
+        return channels.size();
+    }
+
+    private <T extends LogChannel> T register(T channel, SamplingPolicy policy) {
+        channel.setSamplingPolicy(policy);
+        channels.add(channel);
+        return channel;
+    }
+
+    /**
+     * Starts the log file. When called without headers, the columns are the registered channels.
+     */
     public void initializeLogging(String... headers) {
+        initialized = true;
         if (!LogToSdCard) {
             return;
         }
 
+        LogChannel.Type[] types = null;
+        if (headers.length == 0 && !channels.isEmpty()) {
+            headers = new String[channels.size()];
+            types = new LogChannel.Type[channels.size()];
+            for (int i = 0; i < channels.size(); i++) {
+                headers[i] = channels.get(i).getName();
+                types[i] = channels.get(i).getType();
+            }
+        }
+
         try {
             File baseDir = null;
             
@@ -77,18 +171,11 @@ public class DataLogger {
             File directory = baseDir;
             System.out.println("DataLogger: Logging to " + directory.getAbsolutePath());
 
-            // Clean up old files if we exceed the limit
-            File[] files = directory.listFiles((dir, name) -> name.endsWith(".csv"));
-            if (files != null && files.length >= maxFileCount) {
-                Arrays.sort(files, Comparator.comparingLong(File::lastModified));
-                // Delete oldest files until we have space for the new one
-                for (int i = 0; i <= files.length - maxFileCount; i++) {
-                    files[i].delete();
-                }
-            }
+            // Old logs are cleaned up on a background thread so init doesn't wait for the SD card
+            LogRetention.markActive(fileName);
+            LogRetention.enforceAsync(directory, maxFileCount, MaxStorageMB * 1024L * 1024L, TimeUnit.DAYS.toMillis(MaxLogAgeDays));
 
-            File file = new File(directory, fileName + ".csv");
-            System.out.println("DataLogger: Creating file " + file.getAbsolutePath());
+            LogFormat format = Format;
             
             /*
              * Performance Note:
@@ -102,17 +189,16 @@ public class DataLogger {
              * 
              * This ensures the main thread is never blocked by slow SD card I/O.
              */
-            writer = new PrintWriter(new BufferedWriter(new FileWriter(file), BUFFER_SIZE));
+            writer = createWriter(format, directory);
+            // Mapped writes are plain memory copies already, a writer thread would only add a crash window
+            if (AsyncWrite && format != LogFormat.MAPPED) {
+                writer = new AsyncLogWriter(writer, AsyncBufferRows);
+            }
             System.out.println("DataLogger: File created successfully");
             
             startTime = System.nanoTime();
             
-            // Write CSV Header
-            StringBuilder headerLine = new StringBuilder("# Timestamp");
-            for (String header : headers) {
-                headerLine.append(",").append(header);
-            }
-            writer.println(headerLine.toString());
+            writer.writeHeader(headers, types);
             
         } catch (Exception e) {
             System.out.println("DataLogger ERROR: " + e.getMessage());
@@ -121,33 +207,86 @@ public class DataLogger {
         }
     }
 
+    private LogWriter createWriter(LogFormat format, File directory) throws IOException {
+        switch (format) {
+            case BINARY:
+                return new RotatingLogWriter(directory, fileName, BinaryLogFormat.FILE_EXTENSION, MaxFileSizeMB * 1024L * 1024L, CompressClosedLogs,
+                        file -> new BinaryLogWriter(file, BUFFER_SIZE, BinaryFloatValues));
+            case MAPPED:
+                System.out.println("DataLogger: Creating segments " + new File(directory, MappedSegmentLogWriter.segmentFileName(fileName, 0)).getAbsolutePath());
+                return new MappedSegmentLogWriter(directory, fileName, MappedSegmentKB * 1024, BinaryFloatValues);
+            case CSV:
+            default:
+                return new RotatingLogWriter(directory, fileName, CsvLogWriter.FILE_EXTENSION, MaxFileSizeMB * 1024L * 1024L, CompressClosedLogs,
+                        file -> new CsvLogWriter(file, BUFFER_SIZE));
+        }
+    }
+
     public void log(double... values) {
         if (writer != null) {
-            lineBuilder.setLength(0);
-            // Use nanoTime for high-precision physics calculations
-            lineBuilder.append((System.nanoTime() - startTime) / 1.0E9); 
-            for (double value : values) {
-                lineBuilder.append(",").append(value);
+            try {
+                // Use nanoTime for high-precision physics calculations
+                writer.writeRow((System.nanoTime() - startTime) / 1.0E9, values, values.length);
+            } catch (Exception e) {
+                onWriteError(e);
+            }
+        }
+    }
+
+    /**
+     * Records every channel whose {@link SamplingPolicy} is due. Channels that are not due keep
+     * their last recorded value, and if no channel is due the row is skipped. Does not allocate.
+     */
+    public void commitRow() {
+        if (writer != null) {
+            try {
+                long now = System.nanoTime();
+                int count = channels.size();
+                long present = 0;
+                for (int i = 0; i < count; i++) {
+                    if (channels.get(i).sample(now)) {
+                        recorded[i] = row[i];
+                        present |= 1L << i;
+                    }
+                }
+                if (present == 0) {
+                    return;
+                }
+                writer.writeSparseRow((now - startTime) / 1.0E9, recorded, count, present);
+            } catch (Exception e) {
+                onWriteError(e);
             }
-            writer.println(lineBuilder.toString());
         }
     }
 
     public void logComment(String message) {
         if (writer != null) {
-            double timestamp = (System.nanoTime() - startTime) / 1.0E9;
-            writer.println("# " + String.format(Locale.US, "%.3f", timestamp) + " " + message);
+            try {
+                writer.writeComment((System.nanoTime() - startTime) / 1.0E9, message);
+            } catch (Exception e) {
+                onWriteError(e);
+            }
         }
     }
 
     public void close() {
         if (writer != null) {
-            writer.flush();
-            writer.close();
+            try {
+                writer.close();
+            } catch (Exception e) {
+                System.out.println("DataLogger ERROR: " + e.getMessage());
+            }
             writer = null;
+            LogRetention.markClosed(fileName);
         }
     }
 
+    private void onWriteError(Exception e) {
+        // Stop logging rather than throwing from the robot loop (e.g. SD card removed or full)
+        System.out.println("DataLogger ERROR: " + e.getMessage());
+        close();
+    }
+
     public static String getLogFileName(String opModeName, String logSuffix) {
         SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.US);
         sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
@@ -0,0 +1,12 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+public final class DoubleChannel extends LogChannel {
+
+    DoubleChannel(String name, int index, double[] row) {
+        super(name, Type.DOUBLE, index, row);
+    }
+
+    public void set(double value) {
+        row[index] = value;
+    }
+}
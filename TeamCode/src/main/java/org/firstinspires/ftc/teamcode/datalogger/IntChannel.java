@@ -0,0 +1,12 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+public final class IntChannel extends LogChannel {
+
+    IntChannel(String name, int index, double[] row) {
+        super(name, Type.INT, index, row);
+    }
+
+    public void set(int value) {
+        row[index] = value;
+    }
+}
@@ -0,0 +1,64 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+/**
+ * One column of a {@link DataLogger} row. Register channels once during init, set their values
+ * every loop and call {@link DataLogger#commitRow()}; nothing is allocated per row.
+ */
+public abstract class LogChannel {
+
+    public enum Type {
+        DOUBLE,
+        INT,
+        BOOLEAN
+    }
+
+    private final String name;
+    private final Type type;
+    final int index;
+    final double[] row;
+
+    private SamplingPolicy policy = SamplingPolicy.EVERY_LOOP;
+    private boolean everRecorded;
+    private int rowsSinceRecorded;
+    private long lastRecordedNanos;
+    private double lastRecorded;
+
+    LogChannel(String name, Type type, int index, double[] row) {
+        this.name = name;
+        this.type = type;
+        this.index = index;
+        this.row = row;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public SamplingPolicy getSamplingPolicy() {
+        return policy;
+    }
+
+    void setSamplingPolicy(SamplingPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Called once per committed row. Returns true and remembers the value when the channel is due.
+     */
+    boolean sample(long nowNanos) {
+        double value = row[index];
+        rowsSinceRecorded++;
+        if (everRecorded && !policy.isDue(rowsSinceRecorded, nowNanos - lastRecordedNanos, lastRecorded, value)) {
+            return false;
+        }
+        everRecorded = true;
+        rowsSinceRecorded = 0;
+        lastRecordedNanos = nowNanos;
+        lastRecorded = value;
+        return true;
+    }
+}
@@ -0,0 +1,96 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+/**
+ * Writes numbers straight into a char buffer. StringBuilder.append(double) goes through
+ * Double.toString, which allocates on Android; at loop rate that garbage shows up as GC pauses.
+ *
+ * Doubles are printed with up to {@link #FRACTION_DIGITS} fraction digits and trailing zeros
+ * removed, which is more precision than any sensor or motor power we log.
+ */
+final class LogNumberFormat {
+
+    static final int FRACTION_DIGITS = 9;
+
+    /** Longest output of {@link #appendDouble}, e.g. "-9223372036854775807.123456789". */
+    static final int MAX_CHARS = 32;
+
+    private static final long FRACTION_SCALE = 1_000_000_000L;
+
+    // Above this the scaled value would overflow a long, print whole numbers only
+    private static final double MAX_FRACTIONAL = 9.0E9;
+
+    private static final char[] NAN = "NaN".toCharArray();
+    private static final char[] INFINITY = "Infinity".toCharArray();
+
+    private LogNumberFormat() {
+    }
+
+    static int appendDouble(char[] buffer, int pos, double value) {
+        if (Double.isNaN(value)) {
+            return appendChars(buffer, pos, NAN);
+        }
+        boolean negative = value < 0;
+        value = Math.abs(value);
+        if (value >= MAX_FRACTIONAL) {
+            // Large enough that the sign is never rounded away
+            if (negative) {
+                buffer[pos++] = '-';
+            }
+            if (Double.isInfinite(value)) {
+                return appendChars(buffer, pos, INFINITY);
+            }
+            if (value >= Long.MAX_VALUE) {
+                // Never seen in practice, keep it correct rather than fast
+                return appendChars(buffer, pos, Double.toString(value).toCharArray());
+            }
+            return appendLong(buffer, pos, Math.round(value));
+        }
+
+        long scaled = Math.round(value * FRACTION_SCALE);
+        // Sign after rounding, -1e-10 prints as 0 like +1e-10 does
+        if (negative && scaled != 0) {
+            buffer[pos++] = '-';
+        }
+        pos = appendLong(buffer, pos, scaled / FRACTION_SCALE);
+        long fraction = scaled % FRACTION_SCALE;
+        if (fraction == 0) {
+            return pos;
+        }
+
+        int digits = FRACTION_DIGITS;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            digits--;
+        }
+        buffer[pos++] = '.';
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[pos + i] = (char) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        return pos + digits;
+    }
+
+    static int appendLong(char[] buffer, int pos, long value) {
+        if (value == Long.MIN_VALUE) {
+            return appendChars(buffer, pos, Long.toString(value).toCharArray());
+        }
+        if (value < 0) {
+            buffer[pos++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[pos + i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + digits;
+    }
+
+    private static int appendChars(char[] buffer, int pos, char[] chars) {
+        System.arraycopy(chars, 0, buffer, pos, chars.length);
+        return pos + chars.length;
+    }
+}
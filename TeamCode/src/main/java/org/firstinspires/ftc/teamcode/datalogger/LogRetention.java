@@ -0,0 +1,234 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Log housekeeping that used to run during opmode init: deleting old logs and, new, gzipping
+ * finished ones. Everything runs in order on one low priority background thread, so directory
+ * listings, deletes and compression never add to init or loop time.
+ */
+final class LogRetention {
+
+    static final String GZIP_EXTENSION = ".gz";
+
+    static final String PART_SUFFIX = "_part";
+
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "DataLoggerRetention");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    // Base names of logs that are still being written, never delete or compress those
+    private static final Set<String> ACTIVE_LOGS = ConcurrentHashMap.newKeySet();
+
+    private LogRetention() {
+    }
+
+    static void markActive(String fileName) {
+        ACTIVE_LOGS.add(fileName);
+    }
+
+    static void markClosed(String fileName) {
+        ACTIVE_LOGS.remove(fileName);
+    }
+
+    /**
+     * Deletes the oldest logs, all their parts and segments together, until the directory is within
+     * the log count, age and size budget.
+     */
+    static void enforceAsync(File directory, int maxLogCount, long maxTotalBytes, long maxAgeMs) {
+        EXECUTOR.execute(() -> {
+            try {
+                enforce(directory, maxLogCount, maxTotalBytes, maxAgeMs);
+            } catch (Exception e) {
+                System.out.println("DataLogger ERROR: retention failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Replaces a closed log file with name.gz.
+     */
+    static void compressAsync(File file) {
+        EXECUTOR.execute(() -> {
+            try {
+                compress(file);
+            } catch (Exception e) {
+                System.out.println("DataLogger ERROR: compressing " + file.getName() + " failed: " + e.getMessage());
+            }
+        });
+    }
+
+    static boolean isLogFile(String name) {
+        if (name.endsWith(GZIP_EXTENSION)) {
+            name = name.substring(0, name.length() - GZIP_EXTENSION.length());
+        }
+        return name.endsWith(CsvLogWriter.FILE_EXTENSION)
+                || name.endsWith(BinaryLogFormat.FILE_EXTENSION)
+                || name.endsWith(BinaryLogFormat.SEGMENT_EXTENSION);
+    }
+
+    private static void enforce(File directory, int maxLogCount, long maxTotalBytes, long maxAgeMs) {
+        File[] files = directory.listFiles((dir, name) -> isLogFile(name));
+        if (files == null) {
+            return;
+        }
+
+        // Parts and segments of one log only make sense together, retention keeps or deletes whole logs
+        Map<String, LogFiles> byName = new HashMap<>();
+        for (File file : files) {
+            String baseName = logBaseName(file.getName());
+            LogFiles log = byName.get(baseName);
+            if (log == null) {
+                log = new LogFiles(baseName);
+                byName.put(baseName, log);
+            }
+            log.add(file);
+        }
+
+        long totalBytes = 0;
+        List<LogFiles> logs = new ArrayList<>();
+        for (LogFiles log : byName.values()) {
+            if (!isActive(log.baseName)) {
+                totalBytes += log.bytes;
+                logs.add(log);
+            }
+        }
+        Collections.sort(logs, Comparator.comparingLong(log -> log.lastModified));
+
+        long now = System.currentTimeMillis();
+        int remaining = logs.size();
+        int deleted = 0;
+        for (LogFiles log : logs) {
+            boolean tooMany = maxLogCount > 0 && remaining >= maxLogCount;
+            boolean tooBig = maxTotalBytes > 0 && totalBytes > maxTotalBytes;
+            boolean tooOld = maxAgeMs > 0 && now - log.lastModified > maxAgeMs;
+            if (!tooMany && !tooBig && !tooOld) {
+                // Sorted oldest first, everything after this is newer
+                break;
+            }
+            for (File file : log.files) {
+                long length = file.length();
+                if (file.delete()) {
+                    totalBytes -= length;
+                }
+            }
+            remaining--;
+            deleted++;
+        }
+
+        // Leftovers from a compression that was interrupted by the app stopping
+        File[] temps = directory.listFiles((dir, name) -> name.endsWith(TEMP_EXTENSION));
+        if (temps != null) {
+            for (File temp : temps) {
+                temp.delete();
+            }
+        }
+
+        if (deleted > 0) {
+            System.out.println("DataLogger: Retention deleted " + deleted + " old logs, " + (totalBytes / 1024) + " KB kept");
+        }
+    }
+
+    /**
+     * Name of the log a file belongs to: without .gz, the extension, the _partN of a rotated part
+     * or the _NNN of a segment.
+     */
+    static String logBaseName(String name) {
+        if (name.endsWith(GZIP_EXTENSION)) {
+            name = name.substring(0, name.length() - GZIP_EXTENSION.length());
+        }
+        if (name.endsWith(BinaryLogFormat.SEGMENT_EXTENSION)) {
+            return stripSuffix(name.substring(0, name.length() - BinaryLogFormat.SEGMENT_EXTENSION.length()), "_");
+        }
+        int dot = name.lastIndexOf('.');
+        if (dot >= 0) {
+            name = name.substring(0, dot);
+        }
+        return stripSuffix(name, PART_SUFFIX);
+    }
+
+    /** Removes marker followed by digits from the end of name, if it ends that way. */
+    private static String stripSuffix(String name, String marker) {
+        int end = name.length();
+        int digits = end;
+        while (digits > 0 && Character.isDigit(name.charAt(digits - 1))) {
+            digits--;
+        }
+        if (digits == end || !name.startsWith(marker, digits - marker.length())) {
+            return name;
+        }
+        return name.substring(0, digits - marker.length());
+    }
+
+    private static final class LogFiles {
+        final String baseName;
+        final List<File> files = new ArrayList<>();
+        long bytes;
+        long lastModified;
+
+        LogFiles(String baseName) {
+            this.baseName = baseName;
+        }
+
+        void add(File file) {
+            files.add(file);
+            bytes += file.length();
+            lastModified = Math.max(lastModified, file.lastModified());
+        }
+    }
+
+    private static boolean isActive(String name) {
+        for (String active : ACTIVE_LOGS) {
+            if (name.startsWith(active)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void compress(File file) throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        File temp = new File(file.getPath() + GZIP_EXTENSION + TEMP_EXTENSION);
+        File target = new File(file.getPath() + GZIP_EXTENSION);
+
+        byte[] chunk = new byte[65536];
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file));
+             OutputStream out = new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+        }
+
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            throw new IOException("could not rename " + temp.getName());
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,43 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+import java.io.IOException;
+
+/**
+ * Output format used by {@link DataLogger}. Timestamps are seconds since logging started.
+ */
+interface LogWriter {
+
+    /**
+     * @param types column types, or null when every column is a double
+     */
+    void writeHeader(String[] columns, LogChannel.Type[] types) throws IOException;
+
+    void writeRow(double timestamp, double[] values, int count) throws IOException;
+
+    /**
+     * Writes a row in which only some columns were sampled. values holds every column, with the
+     * last recorded value for the columns that were not. Bit i of present is set when column i
+     * was sampled. Formats without a sparse encoding write the full row.
+     */
+    default void writeSparseRow(double timestamp, double[] values, int count, long present) throws IOException {
+        writeRow(timestamp, values, count);
+    }
+
+    void writeComment(double timestamp, String message) throws IOException;
+
+    void close() throws IOException;
+
+    /**
+     * Size of the output so far, used for size based rotation. 0 when the writer does not track it.
+     */
+    default long bytesWritten() {
+        return 0;
+    }
+
+    /**
+     * The present mask of a row in which all count columns were sampled.
+     */
+    static long allColumns(int count) {
+        return count >= 64 ? -1L : (1L << count) - 1;
+    }
+}
@@ -0,0 +1,97 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+
+/**
+ * Crash-safe binary log. Records are copied straight into a memory-mapped, preallocated segment
+ * file and the committed length in the segment header is bumped after every record. The data is
+ * in the kernel page cache as soon as the put returns, so it survives the opmode being killed or
+ * the app crashing without any flush on the loop thread; {@link BinaryLogSegments} recovers
+ * everything up to the last committed record.
+ *
+ * A full power loss can still lose whatever the kernel had not written back yet.
+ */
+class MappedSegmentLogWriter extends BinaryLogEncoder {
+
+    private final File directory;
+    private final String baseName;
+    private final int segmentSize;
+
+    private int segmentIndex = -1;
+    private RandomAccessFile file;
+    private MappedByteBuffer segment;
+
+    /**
+     * @param segmentSize bytes per segment file, header included
+     */
+    MappedSegmentLogWriter(File directory, String baseName, int segmentSize, boolean floatValues) throws IOException {
+        super(floatValues);
+        this.directory = directory;
+        this.baseName = baseName;
+        this.segmentSize = Math.max(segmentSize, BinaryLogFormat.SEGMENT_HEADER_BYTES + 2 * BinaryLogFormat.MAX_COMMENT_BYTES);
+        openNextSegment();
+    }
+
+    static String segmentFileName(String baseName, int index) {
+        return baseName + String.format(Locale.US, "_%03d", index) + BinaryLogFormat.SEGMENT_EXTENSION;
+    }
+
+    @Override
+    protected ByteBuffer room(int bytes) throws IOException {
+        if (segment.remaining() < bytes) {
+            openNextSegment();
+        }
+        return segment;
+    }
+
+    @Override
+    protected void recordWritten() {
+        segment.putLong(BinaryLogFormat.SEGMENT_COMMITTED_OFFSET, segment.position() - BinaryLogFormat.SEGMENT_HEADER_BYTES);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The opmode is over, make the last segment durable before the app may be stopped
+        if (segment != null) {
+            segment.force();
+        }
+        closeSegment();
+    }
+
+    private void openNextSegment() throws IOException {
+        closeSegment();
+        segmentIndex++;
+
+        file = new RandomAccessFile(new File(directory, segmentFileName(baseName, segmentIndex)), "rw");
+        file.setLength(segmentSize);
+        segment = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment.order(BinaryLogFormat.BYTE_ORDER);
+
+        segment.putInt(BinaryLogFormat.SEGMENT_MAGIC);
+        segment.putShort(BinaryLogFormat.VERSION);
+        segment.putShort((short) 0);
+        segment.putInt(segmentIndex);
+        segment.putInt(segmentSize);
+        segment.putLong(0);
+        segment.putLong(0);
+    }
+
+    /**
+     * Called on the loop thread when a segment fills up, so no force(): a synchronous msync of the
+     * whole segment is the stall this writer avoids. The kernel writes the pages back on its own
+     * and the mapping survives the app crashing.
+     */
+    private void closeSegment() throws IOException {
+        segment = null;
+        if (file != null) {
+            file.close();
+            file = null;
+        }
+    }
+}
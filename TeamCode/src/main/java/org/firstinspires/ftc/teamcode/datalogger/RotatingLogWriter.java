@@ -0,0 +1,123 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts a new part file (name_part2.csv, name_part3.csv, ...) once the current one passes
+ * the size limit, so a long practice session cannot grow a single log without bound. Each part
+ * repeats the header and the metadata comments written before the first row, so every part
+ * can be analyzed on its own. Finished parts are handed to {@link LogRetention} for compression.
+ */
+class RotatingLogWriter implements LogWriter {
+
+    interface Factory {
+        LogWriter open(File file) throws IOException;
+    }
+
+    private final File directory;
+    private final String fileName;
+    private final String extension;
+    private final long maxBytes;
+    private final boolean compressClosedParts;
+    private final Factory factory;
+
+    private String[] columns;
+    private LogChannel.Type[] types;
+    private final List<String> metadata = new ArrayList<>();
+    private final List<Double> metadataTimestamps = new ArrayList<>();
+    private boolean rowsStarted = false;
+
+    private int part = 1;
+    private File currentFile;
+    private LogWriter current;
+
+    /**
+     * @param maxBytes rotate once a part is bigger than this, 0 disables rotation
+     */
+    RotatingLogWriter(File directory, String fileName, String extension, long maxBytes, boolean compressClosedParts, Factory factory) throws IOException {
+        this.directory = directory;
+        this.fileName = fileName;
+        this.extension = extension;
+        this.maxBytes = maxBytes;
+        this.compressClosedParts = compressClosedParts;
+        this.factory = factory;
+        openPart();
+    }
+
+    @Override
+    public void writeHeader(String[] columns, LogChannel.Type[] types) throws IOException {
+        this.columns = columns;
+        this.types = types;
+        current.writeHeader(columns, types);
+    }
+
+    @Override
+    public void writeRow(double timestamp, double[] values, int count) throws IOException {
+        rowsStarted = true;
+        if (maxBytes > 0 && current.bytesWritten() >= maxBytes) {
+            rotate(timestamp);
+        }
+        current.writeRow(timestamp, values, count);
+    }
+
+    @Override
+    public void writeSparseRow(double timestamp, double[] values, int count, long present) throws IOException {
+        rowsStarted = true;
+        if (maxBytes > 0 && current.bytesWritten() >= maxBytes) {
+            rotate(timestamp);
+            // Nothing to forward-fill from in a new part, start it with a full row
+            current.writeRow(timestamp, values, count);
+            return;
+        }
+        current.writeSparseRow(timestamp, values, count, present);
+    }
+
+    @Override
+    public void writeComment(double timestamp, String message) throws IOException {
+        if (!rowsStarted) {
+            metadata.add(message);
+            metadataTimestamps.add(timestamp);
+        }
+        current.writeComment(timestamp, message);
+    }
+
+    @Override
+    public long bytesWritten() {
+        return current.bytesWritten();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closePart();
+    }
+
+    private void rotate(double timestamp) throws IOException {
+        current.writeComment(timestamp, "Log continues in part " + (part + 1));
+        closePart();
+        part++;
+        openPart();
+
+        current.writeHeader(columns, types);
+        for (int i = 0; i < metadata.size(); i++) {
+            current.writeComment(metadataTimestamps.get(i), metadata.get(i));
+        }
+        current.writeComment(timestamp, "Continued from part " + (part - 1));
+    }
+
+    private void openPart() throws IOException {
+        String name = part == 1 ? fileName : fileName + LogRetention.PART_SUFFIX + part;
+        currentFile = new File(directory, name + extension);
+        System.out.println("DataLogger: Creating file " + currentFile.getAbsolutePath());
+        current = factory.open(currentFile);
+    }
+
+    private void closePart() throws IOException {
+        current.close();
+        if (compressClosedParts) {
+            LogRetention.compressAsync(currentFile);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * When a {@link LogChannel} is recorded. Channels that are not due in a row keep their last
+ * recorded value: CSV output repeats it, the binary format leaves it out of a sparse row and
+ * {@link BinaryLogConverter} forward-fills it.
+ *
+ * Use {@link #EVERY_LOOP} for anything that is analyzed sample by sample (flywheel velocities,
+ * powers, errors) and the decimating policies for slow or rarely changing values.
+ */
+public final class SamplingPolicy {
+
+    public static final SamplingPolicy EVERY_LOOP = new SamplingPolicy(1, 0, Double.NaN);
+
+    private final int everyNth;
+    private final long periodNanos;
+    private final double deadband;
+
+    private SamplingPolicy(int everyNth, long periodNanos, double deadband) {
+        this.everyNth = everyNth;
+        this.periodNanos = periodNanos;
+        this.deadband = deadband;
+    }
+
+    /** Records every n-th committed row. */
+    public static SamplingPolicy everyNth(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be at least 1");
+        }
+        return new SamplingPolicy(n, 0, Double.NaN);
+    }
+
+    /** Records at most once per period. */
+    public static SamplingPolicy everyMs(long periodMs) {
+        if (periodMs < 1) {
+            throw new IllegalArgumentException("periodMs must be at least 1");
+        }
+        return new SamplingPolicy(0, TimeUnit.MILLISECONDS.toNanos(periodMs), Double.NaN);
+    }
+
+    /** Records only when the value moved more than deadband away from the last recorded value. */
+    public static SamplingPolicy onChange(double deadband) {
+        return new SamplingPolicy(0, 0, Math.abs(deadband));
+    }
+
+    boolean isDue(int rowsSinceRecorded, long nanosSinceRecorded, double lastRecorded, double value) {
+        if (everyNth > 0) {
+            return rowsSinceRecorded >= everyNth;
+        }
+        if (periodNanos > 0) {
+            return nanosSinceRecorded >= periodNanos;
+        }
+        // NaN never compares, treat a change into or out of NaN as a change
+        return Math.abs(value - lastRecorded) > deadband
+                || Double.isNaN(value) != Double.isNaN(lastRecorded);
+    }
+}
@@ -0,0 +1,116 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.bylazar.configurables.annotations.Configurable;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+import org.firstinspires.ftc.teamcode.datalogger.SamplingPolicy;
+import org.firstinspires.ftc.teamcode.signals.Signal;
+import org.firstinspires.ftc.teamcode.signals.SignalBus;
+
+import java.util.List;
+
+/**
+ * Per-opmode battery voltage, for feedforward terms that should produce the same motor voltage
+ * whatever the battery is at. Voltage is not part of the hub bulk read, every sample is its own
+ * hub transaction, so {@link #update()} reads the sensor only every SamplePeriodMs and smooths
+ * the samples; everything else reads the cached value.
+ *
+ * The voltage is published as "Battery/Voltage" and, next to the motor powers, lets the log
+ * analysis fit gains normalized to NominalVoltage.
+ */
+public final class BatteryVoltage {
+
+    @Config
+    @Configurable
+    public static class BatteryVoltageConfig {
+        // Feedforward gains are scaled by NominalVoltage / voltage. Keep off until the gains were
+        // fitted against NominalVoltage, the existing ones were tuned on whatever battery was in
+        public static boolean CompensationEnabled = false;
+
+        public static double NominalVoltage = 12.5;
+
+        public static long SamplePeriodMs = 100;
+
+        // Weight of a new sample, 1 takes every sample as is
+        public static double SmoothingFactor = 0.5;
+
+        // Limits the scale when the reading is off, e.g. a brownout or a disconnected sensor
+        public static double MinCompensation = 0.8;
+        public static double MaxCompensation = 1.3;
+    }
+
+    private static BatteryVoltage instance = new BatteryVoltage(null);
+
+    private final VoltageSensor sensor;
+    private final Signal voltageSignal, compensationSignal;
+    private double voltage = Double.NaN;
+    private double compensation = 1;
+    private long lastSampleNanos;
+    private int samples;
+
+    private BatteryVoltage(VoltageSensor sensor) {
+        this.sensor = sensor;
+        SignalBus signals = SignalBus.get();
+        // Only changes when a sample is taken
+        voltageSignal = signals.addDouble("Battery", "Voltage").withLogPolicy(SamplingPolicy.onChange(0));
+        compensationSignal = signals.addDouble("Battery", "Compensation").withLogPolicy(SamplingPolicy.onChange(0));
+    }
+
+    public static BatteryVoltage get() {
+        return instance;
+    }
+
+    /**
+     * Starts sampling the first hub voltage sensor. Called by the opmode base classes after
+     * {@link SignalBus#reset()}; without it the voltage stays unknown and the compensation 1.
+     */
+    public static void reset(HardwareMap hardwareMap) {
+        List<VoltageSensor> sensors = hardwareMap.getAll(VoltageSensor.class);
+        instance = new BatteryVoltage(sensors.isEmpty() ? null : sensors.get(0));
+        instance.sample(System.nanoTime());
+    }
+
+    /** Call once per loop, reads the sensor when the sample period has passed. */
+    public void update() {
+        long now = System.nanoTime();
+        if (sensor != null && (now - lastSampleNanos) / 1.0E6 >= BatteryVoltageConfig.SamplePeriodMs) {
+            sample(now);
+        }
+        voltageSignal.set(voltage);
+        compensationSignal.set(compensation);
+    }
+
+    /** Smoothed battery voltage, NaN before the first sample. */
+    public double getVoltage() {
+        return voltage;
+    }
+
+    /**
+     * Factor for feedforward terms, NominalVoltage / voltage within the configured limits, 1 when
+     * compensation is off or the voltage is unknown.
+     */
+    public double getCompensation() {
+        return BatteryVoltageConfig.CompensationEnabled ? compensation : 1;
+    }
+
+    public int getSampleCount() {
+        return samples;
+    }
+
+    private void sample(long now) {
+        if (sensor == null) {
+            return;
+        }
+        lastSampleNanos = now;
+        double reading = sensor.getVoltage();
+        if (!(reading > 0)) {
+            return;
+        }
+        samples++;
+        voltage = Double.isNaN(voltage) ? reading : voltage + BatteryVoltageConfig.SmoothingFactor * (reading - voltage);
+        compensation = Math.max(BatteryVoltageConfig.MinCompensation,
+                Math.min(BatteryVoltageConfig.MaxCompensation, BatteryVoltageConfig.NominalVoltage / voltage));
+    }
+}
@@ -0,0 +1,63 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.arcrobotics.ftclib.hardware.motors.MotorEx;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+/**
+ * {@link CachedMotor} for motors that need the MotorEx API (getVelocity, the drive base). RawPower
+ * writes go through an {@link OutputCache}; velocity and position control write straight through.
+ */
+public class CachedMotorEx extends MotorEx {
+
+    private final OutputCache output;
+    private boolean rawPower = true;
+
+    public CachedMotorEx(HardwareMap hardwareMap, String id) {
+        super(hardwareMap, id);
+        this.output = new OutputCache(id, HardwareOutputs.HardwareOutputConfig.MotorEpsilon, super::set);
+    }
+
+    public CachedMotorEx(HardwareMap hardwareMap, String id, GoBILDA gobildaType) {
+        super(hardwareMap, id, gobildaType);
+        this.output = new OutputCache(id, HardwareOutputs.HardwareOutputConfig.MotorEpsilon, super::set);
+    }
+
+    @Override
+    public void set(double power) {
+        if (rawPower && output != null) {
+            output.set(power);
+        } else {
+            super.set(power);
+        }
+    }
+
+    /** Last commanded power in RawPower mode, served from the cache instead of a hub read. */
+    @Override
+    public double get() {
+        double commanded = rawPower && output != null ? output.get() : Double.NaN;
+        return Double.isNaN(commanded) ? super.get() : commanded;
+    }
+
+    @Override
+    public void stopMotor() {
+        if (rawPower) {
+            set(0);
+        } else {
+            super.stopMotor();
+            output.invalidate();
+        }
+    }
+
+    @Override
+    public void setRunMode(RunMode runmode) {
+        super.setRunMode(runmode);
+        rawPower = runmode == RunMode.RawPower;
+        if (output != null) {
+            output.invalidate();
+        }
+    }
+
+    public OutputCache getOutput() {
+        return output;
+    }
+}
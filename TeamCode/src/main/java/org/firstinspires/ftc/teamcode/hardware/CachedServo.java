@@ -0,0 +1,37 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.Servo;
+
+/**
+ * Servo whose position writes go through an {@link OutputCache}. Subsystems that command the same
+ * position every loop (tilt, stopper, indicator light) only talk to the hub when it changes.
+ */
+public class CachedServo {
+
+    private final Servo servo;
+    private final OutputCache output;
+
+    public CachedServo(HardwareMap hardwareMap, String name) {
+        this.servo = hardwareMap.get(Servo.class, name);
+        this.output = new OutputCache(name, HardwareOutputs.HardwareOutputConfig.ServoEpsilon, servo::setPosition);
+    }
+
+    public void setPosition(double position) {
+        output.set(position);
+    }
+
+    /** Last commanded position, served from the cache. */
+    public double getPosition() {
+        return output.get();
+    }
+
+    /** The underlying servo, for configuration such as the PWM range. Writing through it bypasses the cache. */
+    public Servo getServo() {
+        return servo;
+    }
+
+    public OutputCache getOutput() {
+        return output;
+    }
+}
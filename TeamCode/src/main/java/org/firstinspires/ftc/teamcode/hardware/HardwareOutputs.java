@@ -0,0 +1,109 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import android.util.Log;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.bylazar.configurables.annotations.Configurable;
+
+import org.firstinspires.ftc.teamcode.signals.Signal;
+import org.firstinspires.ftc.teamcode.signals.SignalBus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Per-opmode registry of every {@link OutputCache}. The opmode base classes call {@link #commit()}
+ * once per loop after the scheduler ran: it writes deferred values and publishes how many writes
+ * reached the hubs and how many were coalesced away as the "Hardware/Writes" and
+ * "Hardware/SkippedWrites" signals. {@link #finish()} logs the per-output totals.
+ */
+public final class HardwareOutputs {
+
+    private static final String LOG_TAG = HardwareOutputs.class.getSimpleName();
+
+    @Config
+    @Configurable
+    public static class HardwareOutputConfig {
+        // All three are read when the opmode initializes
+        public static boolean DeferWrites = false;
+
+        public static double MotorEpsilon = 0.002;
+
+        public static double ServoEpsilon = 0.001;
+    }
+
+    private static HardwareOutputs instance = new HardwareOutputs(false);
+
+    private final boolean deferWrites;
+    private final List<OutputCache> outputs = new ArrayList<>();
+    private final Signal writesSignal, skippedSignal;
+    private int loopWrites, loopSkipped;
+
+    private HardwareOutputs(boolean deferWrites) {
+        this.deferWrites = deferWrites;
+        SignalBus signals = SignalBus.get();
+        writesSignal = signals.addDouble("Hardware", "Writes");
+        skippedSignal = signals.addDouble("Hardware", "SkippedWrites");
+    }
+
+    public static HardwareOutputs get() {
+        return instance;
+    }
+
+    /**
+     * Drops all outputs. Called by the opmode base classes after {@link SignalBus#reset()} and
+     * before any subsystem is created; only the base classes commit, so only they may defer.
+     */
+    public static void reset(boolean deferWrites) {
+        instance = new HardwareOutputs(deferWrites);
+    }
+
+    /** Immediate writes, for opmodes that do not run the commit phase. */
+    public static void reset() {
+        reset(false);
+    }
+
+    public boolean isDeferWrites() {
+        return deferWrites;
+    }
+
+    void register(OutputCache output) {
+        outputs.add(output);
+    }
+
+    void onWrite() {
+        loopWrites++;
+    }
+
+    void onSkipped() {
+        loopSkipped++;
+    }
+
+    /**
+     * Writes every deferred value and publishes this loop's write counts. Call once per loop,
+     * after the scheduler ran and before the signal bus publishes.
+     */
+    public void commit() {
+        if (deferWrites) {
+            for (int i = 0; i < outputs.size(); i++) {
+                outputs.get(i).commit();
+            }
+        }
+        writesSignal.set(loopWrites);
+        skippedSignal.set(loopSkipped);
+        loopWrites = 0;
+        loopSkipped = 0;
+    }
+
+    public List<OutputCache> getOutputs() {
+        return outputs;
+    }
+
+    public void finish() {
+        for (OutputCache output : outputs) {
+            Log.i(LOG_TAG, String.format(Locale.US, "%s: %d writes, %d skipped",
+                    output.getName(), output.getWrites(), output.getSkipped()));
+        }
+    }
+}
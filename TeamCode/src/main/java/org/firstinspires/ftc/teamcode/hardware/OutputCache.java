@@ -0,0 +1,100 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Last-value cache in front of one hardware output (a motor power or a servo position). Every
+ * write to a Lynx hub is a blocking transaction of roughly a millisecond, so a value that did not
+ * move by more than the epsilon since the last write is dropped. 0 and +/-1 are always written
+ * exactly, so stopping or saturating an output is never swallowed by the epsilon.
+ *
+ * With deferred writes on ({@link HardwareOutputs#isDeferWrites()}) set() only records the value
+ * and the opmode base classes write it in {@link HardwareOutputs#commit()} at the end of the loop,
+ * so an output that is set several times in one loop costs at most one transaction.
+ */
+public final class OutputCache {
+
+    private final String name;
+    private final double epsilon;
+    private final DoubleConsumer writer;
+    private final HardwareOutputs outputs;
+
+    private double lastWritten = Double.NaN;
+    private double pending;
+    private boolean hasPending;
+
+    private long writes;
+    private long skipped;
+
+    OutputCache(String name, double epsilon, DoubleConsumer writer) {
+        this.name = name;
+        this.epsilon = epsilon;
+        this.writer = writer;
+        this.outputs = HardwareOutputs.get();
+        outputs.register(this);
+    }
+
+    public void set(double value) {
+        if (outputs.isDeferWrites()) {
+            pending = value;
+            hasPending = true;
+        } else {
+            write(value);
+        }
+    }
+
+    /** Writes the value recorded by a deferred set(), if any. */
+    void commit() {
+        if (hasPending) {
+            hasPending = false;
+            write(pending);
+        }
+    }
+
+    /** Last commanded value, including one that is still waiting for commit. NaN before the first set(). */
+    public double get() {
+        return hasPending ? pending : lastWritten;
+    }
+
+    /**
+     * Forgets the last written value, so the next set() always reaches the hardware. Use after
+     * something wrote the device behind the cache's back.
+     */
+    public void invalidate() {
+        lastWritten = Double.NaN;
+    }
+
+    private void write(double value) {
+        if (!needsWrite(value)) {
+            skipped++;
+            outputs.onSkipped();
+            return;
+        }
+        writer.accept(value);
+        lastWritten = value;
+        writes++;
+        outputs.onWrite();
+    }
+
+    private boolean needsWrite(double value) {
+        if (Double.isNaN(lastWritten)) {
+            return true;
+        }
+        if (value == lastWritten) {
+            return false;
+        }
+        return Math.abs(value - lastWritten) > epsilon || value == 0 || Math.abs(value) == 1;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getWrites() {
+        return writes;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+}
@@ -0,0 +1,89 @@
+package org.firstinspires.ftc.teamcode.opmodes;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.control.FixedRateLoop;
+import org.firstinspires.ftc.teamcode.control.LoopClock;
+import org.firstinspires.ftc.teamcode.hardware.BatteryVoltage;
+import org.firstinspires.ftc.teamcode.hardware.HardwareOutputs;
+import org.firstinspires.ftc.teamcode.signals.SignalBus;
+import org.firstinspires.ftc.teamcode.subsystems.RateScheduler;
+import org.firstinspires.ftc.teamcode.subsystems.vision.LimelightPoller;
+import org.firstinspires.ftc.teamcode.util.LoopProfiler;
+import org.firstinspires.ftc.teamcode.util.LynxBulkCache;
+import org.firstinspires.ftc.teamcode.util.WifiMonitor;
+
+/**
+ * The per-opmode setup, loop body and teardown shared by {@link OpModeTemplate} and
+ * CommandAutoOpMode, so the order of the resets and of the loop steps lives in one place.
+ */
+public final class LoopRuntime {
+
+    private final LynxBulkCache bulkCache;
+    private final int schedulerSection, hardwareSection, signalsSection;
+
+    private LoopRuntime(HardwareMap hardwareMap) {
+        LoopProfiler profiler = LoopProfiler.get();
+        schedulerSection = profiler.section(LoopProfiler.SCHEDULER);
+        hardwareSection = profiler.section(LoopProfiler.HARDWARE_COMMIT);
+        signalsSection = profiler.section(LoopProfiler.SIGNALS);
+
+        // Hubs are switched to MANUAL bulk caching, runLoop() clears the cache once per loop
+        bulkCache = new LynxBulkCache(hardwareMap);
+        bulkCache.logReadComparison();
+    }
+
+    /**
+     * Resets the per-opmode state. Subsystems publish signals, register profiler sections and
+     * hardware outputs during construction, so call this before any subsystem is created.
+     */
+    public static LoopRuntime initialize(HardwareMap hardwareMap) {
+        SignalBus.reset();
+        LoopProfiler.reset();
+        HardwareOutputs.reset(HardwareOutputs.HardwareOutputConfig.DeferWrites);
+        BatteryVoltage.reset(hardwareMap);
+        LoopClock.reset();
+        FixedRateLoop.reset();
+        RateScheduler.reset();
+        return new LoopRuntime(hardwareMap);
+    }
+
+    /** One loop around the command scheduler run. */
+    public void runLoop(Runnable scheduler) {
+        // Returns right away unless the fixed loop rate is enabled
+        long loopNanos = FixedRateLoop.get().awaitNextPeriod();
+        LoopProfiler profiler = LoopProfiler.get();
+        profiler.beginLoop();
+        LoopClock.get().tick(loopNanos);
+        RateScheduler.get().beginLoop(loopNanos);
+        bulkCache.clear();
+        long start = profiler.start();
+        // Feedforward terms in the scheduler read the compensation
+        BatteryVoltage.get().update();
+        scheduler.run();
+        profiler.stop(schedulerSection, start);
+
+        start = profiler.start();
+        HardwareOutputs.get().commit();
+        profiler.stop(hardwareSection, start);
+
+        start = profiler.start();
+        SignalBus.get().publish();
+        profiler.stop(signalsSection, start);
+    }
+
+    /**
+     * Reports the loop statistics and stops the background threads. Called from a finally block,
+     * also when the opmode failed before {@link #initialize} returned.
+     */
+    public static void finish(String opModeName, Telemetry telemetry) {
+        LoopProfiler.get().finish(opModeName, telemetry);
+        FixedRateLoop.get().finish(telemetry);
+        LimelightPoller.stopActive();
+        WifiMonitor.stopActive();
+        HardwareOutputs.get().finish();
+        // Opmodes that do not extend the base classes never commit, they must not inherit deferred writes
+        HardwareOutputs.reset();
+    }
+}
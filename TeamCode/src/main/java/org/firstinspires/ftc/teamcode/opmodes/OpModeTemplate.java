@@ -8,6 +8,13 @@ import com.arcrobotics.ftclib.command.CommandOpMode;
 import com.arcrobotics.ftclib.gamepad.GamepadEx;
 import com.bylazar.telemetry.PanelsTelemetry;
 
+import org.firstinspires.ftc.teamcode.opmodes.teleop.MainTeleop;
+import org.firstinspires.ftc.teamcode.signals.DashboardSink;
+import org.firstinspires.ftc.teamcode.signals.LogcatSink;
+import org.firstinspires.ftc.teamcode.signals.SignalBus;
+import org.firstinspires.ftc.teamcode.signals.SignalConfig;
+import org.firstinspires.ftc.teamcode.signals.SignalFilter;
+import org.firstinspires.ftc.teamcode.signals.TelemetrySink;
 import org.firstinspires.ftc.teamcode.util.DelegateOrVoidTelemetry;
 
 public abstract class OpModeTemplate extends CommandOpMode {
@@ -18,17 +25,45 @@ public abstract class OpModeTemplate extends CommandOpMode {
 
     private static final boolean emitTelemetry = true;
 
+    private LoopRuntime loopRuntime;
+
     @Override
     public void initialize() {
         logInitStep("beginning");
         driverGamepad = new GamepadEx(gamepad1);
         operatorGamepad = new GamepadEx(gamepad2);
         FtcDashboard dashboard = FtcDashboard.getInstance();
+
+        // Subsystems register with the per-opmode state, so reset it before creating any
+        loopRuntime = LoopRuntime.initialize(hardwareMap);
+
+        SignalBus signals = SignalBus.get();
+        if (emitTelemetry) {
+            signals.addSink(new TelemetrySink(telemetry, () -> SignalConfig.DriverStationPeriodMs, signal -> MainTeleop.Telemetry.isEnabled(signal.getGroup())));
+        }
+        signals.addSink(new DashboardSink(dashboard, () -> SignalConfig.DashboardPeriodMs, SignalFilter.prefixes(() -> SignalConfig.DashboardFilter)));
+        signals.addSink(new TelemetrySink(PanelsTelemetry.INSTANCE.getFtcTelemetry(), () -> SignalConfig.PanelsPeriodMs, SignalFilter.prefixes(() -> SignalConfig.PanelsFilter)));
+        signals.addSink(new LogcatSink(LOG_TAG, () -> SignalConfig.LogcatPeriodMs, SignalFilter.prefixes(() -> SignalConfig.LogcatFilter)));
+
         telemetry = new DelegateOrVoidTelemetry(new MultipleTelemetry(telemetry, dashboard.getTelemetry(), PanelsTelemetry.INSTANCE.getFtcTelemetry()), emitTelemetry);
         logInitStep("telemetry created");
         dashboard.setTelemetryTransmissionInterval(200);
     }
 
+    @Override
+    public void run() {
+        loopRuntime.runLoop(super::run);
+    }
+
+    @Override
+    public void runOpMode() throws InterruptedException {
+        try {
+            super.runOpMode();
+        } finally {
+            LoopRuntime.finish(getClass().getSimpleName(), telemetry);
+        }
+    }
+
     private void logInitStep(String step) {
         Log.i(LOG_TAG, "Init: " + step);
     }
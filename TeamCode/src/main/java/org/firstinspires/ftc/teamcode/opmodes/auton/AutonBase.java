@@ -62,14 +62,16 @@ public abstract class AutonBase extends CommandAutoOpMode {
 
         boolean isSecondRow = row == RowsOnFloor.PGP;
 
-        Command driveToShootCommand = isSecondRow
-                ? commandFactory.moveTo(rowStartingPosition, PathType.LINE, driveMaxPower).andThen(commandFactory.moveTo(getRowShootingPosition(), PathType.LINE, driveMaxPower))
+        Command driveToShootCommand = shoot
+                ? commandFactory.moveToAndShoot(getRowShootingPosition(), driveMaxPower, getPositions().getGoalPosition(), getShootCommand(), true) // move to shooting position, shoot row
                 : commandFactory.moveTo(getRowShootingPosition(), PathType.LINE, driveMaxPower);
+        if (isSecondRow) {
+            driveToShootCommand = commandFactory.moveTo(rowStartingPosition, PathType.LINE, driveMaxPower).andThen(driveToShootCommand);
+        }
         return commandFactory
                 .moveTo(rowStartingPosition, PathType.CURVE, driveMaxPower)
                 .andThen(intakeRow(row)) // intake row (3 balls)
-                .andThen(driveToShootCommand) // move to shooting position
-                .andThen(shoot ? getShootRowCommand(true) : commandFactory.noop()) // shoot row
+                .andThen(driveToShootCommand)
                 ;
     }
 
@@ -21,6 +21,16 @@ import org.firstinspires.ftc.teamcode.subsystems.scoring.Shooter;
 import org.firstinspires.ftc.teamcode.subsystems.scoring.Stopper;
 import org.firstinspires.ftc.teamcode.subsystems.scoring.TransferChamber;
 import org.firstinspires.ftc.teamcode.subsystems.vision.LimeLightAlign;
+import org.firstinspires.ftc.teamcode.subsystems.vision.VisionPoseFusion;
+import org.firstinspires.ftc.teamcode.opmodes.LoopRuntime;
+import org.firstinspires.ftc.teamcode.opmodes.auton.constants.AutonCommonConfigs;
+import org.firstinspires.ftc.teamcode.opmodes.teleop.MainTeleop;
+import org.firstinspires.ftc.teamcode.signals.DashboardSink;
+import org.firstinspires.ftc.teamcode.signals.LogcatSink;
+import org.firstinspires.ftc.teamcode.signals.SignalBus;
+import org.firstinspires.ftc.teamcode.signals.SignalConfig;
+import org.firstinspires.ftc.teamcode.signals.SignalFilter;
+import org.firstinspires.ftc.teamcode.signals.TelemetrySink;
 import org.firstinspires.ftc.teamcode.util.DelegateOrVoidTelemetry;
 
 public abstract class CommandAutoOpMode extends CommandOpMode {
@@ -31,6 +41,8 @@ public abstract class CommandAutoOpMode extends CommandOpMode {
 
     private static final boolean emitTelemetry = true;
 
+    private LoopRuntime loopRuntime;
+
     Command finalGroup;
 
     @Override
@@ -38,6 +50,11 @@ public abstract class CommandAutoOpMode extends CommandOpMode {
         super.reset();
     }
 
+    @Override
+    public void run() {
+        loopRuntime.runLoop(super::run);
+    }
+
     @Override
     public void waitForStart() {
         super.waitForStart();
@@ -48,6 +65,18 @@ public abstract class CommandAutoOpMode extends CommandOpMode {
     @Override
     public void initialize() {
         logInitStep("Beginning");
+
+        // Subsystems register with the per-opmode state, so reset it before creating any
+        loopRuntime = LoopRuntime.initialize(hardwareMap);
+
+        SignalBus signals = SignalBus.get();
+        if (emitTelemetry) {
+            signals.addSink(new TelemetrySink(telemetry, () -> SignalConfig.DriverStationPeriodMs, signal -> MainTeleop.Telemetry.isEnabled(signal.getGroup())));
+        }
+        signals.addSink(new DashboardSink(FtcDashboard.getInstance(), () -> SignalConfig.DashboardPeriodMs, SignalFilter.prefixes(() -> SignalConfig.DashboardFilter)));
+        signals.addSink(new TelemetrySink(PanelsTelemetry.INSTANCE.getFtcTelemetry(), () -> SignalConfig.PanelsPeriodMs, SignalFilter.prefixes(() -> SignalConfig.PanelsFilter)));
+        signals.addSink(new LogcatSink(AutonCommonConfigs.LOG_TAG, () -> SignalConfig.LogcatPeriodMs, SignalFilter.prefixes(() -> SignalConfig.LogcatFilter)));
+
         telemetry = new DelegateOrVoidTelemetry(new MultipleTelemetry(telemetry, FtcDashboard.getInstance().getTelemetry(), PanelsTelemetry.INSTANCE.getFtcTelemetry()), emitTelemetry);
         GamepadEx driverGamePad = new GamepadEx(gamepad1);
         GamepadEx operatorGamePad = new GamepadEx(gamepad2);
@@ -55,7 +84,7 @@ public abstract class CommandAutoOpMode extends CommandOpMode {
         AutonDriveTrain driveTrain = new AutonDriveTrain(hardwareMap, telemetry);
         TransferChamber transferChamber = new TransferChamber(hardwareMap, operatorGamePad, telemetry) {
             @Override
-            public void periodic() {
+            protected void doPeriodic() {
                 // do nothing
             }
         };
@@ -69,6 +98,8 @@ public abstract class CommandAutoOpMode extends CommandOpMode {
 //                    Log.i(AutonCommonConfigs.LOG_TAG, "follower reported pose: " + followerPose);
                     return followerPose;
                 });
+        // Registers itself with the scheduler, corrects odometry drift from the botpose
+        new VisionPoseFusion(follower, limeLightAlign);
         Shooter shooter = new Shooter(hardwareMap, operatorGamePad, telemetry, rgbLightIndicator, limeLightAlign, this.getClass().getSimpleName());
         shooter.AutoSpeedAndTilt();
         logInitStep("all subsystems created");
@@ -107,6 +138,7 @@ public abstract class CommandAutoOpMode extends CommandOpMode {
             if (commandFactory != null && commandFactory.getShooter() != null) {
                 commandFactory.getShooter().stopLogging();
             }
+            LoopRuntime.finish(getClass().getSimpleName(), telemetry);
         }
     }
 }
@@ -20,6 +20,9 @@ public class AutonCommonConfigs {
 
     public static long shootWithLoadTimeoutInMS = 3000;
     public static long shootWithoutLoadTimeoutInMS = 2000;
+    // End shooting once the shooter detected this many shots, the timeouts above stay the limit
+    public static boolean endShootingOnShotCount = false;
+    public static int shotsPerVolley = 3;
     public static long openGateYOffset = 8;
     public static long openGateXOffset = -10;
 
@@ -3,6 +3,8 @@ package org.firstinspires.ftc.teamcode.opmodes.auton.positions;
 import com.bylazar.configurables.annotations.Configurable;
 import com.pedropathing.geometry.Pose;
 
+import org.firstinspires.ftc.teamcode.opmodes.auton.constants.SpringTagPositions;
+
 @Configurable
 public class BlueLongPositions implements Positions {
 
@@ -56,6 +58,11 @@ public class BlueLongPositions implements Positions {
         return obeliskObservePosition;
     }
 
+    @Override
+    public Pose getGoalPosition() {
+        return SpringTagPositions.BLUE;
+    }
+
     @Override
     public Pose getLongShootPosition() {
         return backShootPosition;
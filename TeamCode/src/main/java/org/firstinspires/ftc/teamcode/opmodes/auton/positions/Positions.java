@@ -25,6 +25,9 @@ public interface Positions {
 
     public Pose getObeliskObservePosition();
 
+    /** Goal the shots aim at, for the moving-shot solver. */
+    public Pose getGoalPosition();
+
     default double getDriveTrainIntakePowerScale() {
         return 1;
     }
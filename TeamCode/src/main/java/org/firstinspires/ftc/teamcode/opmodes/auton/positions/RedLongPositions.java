@@ -3,6 +3,8 @@ package org.firstinspires.ftc.teamcode.opmodes.auton.positions;
 import com.bylazar.configurables.annotations.Configurable;
 import com.pedropathing.geometry.Pose;
 
+import org.firstinspires.ftc.teamcode.opmodes.auton.constants.SpringTagPositions;
+
 @Configurable
 public class RedLongPositions implements Positions {
 
@@ -57,6 +59,11 @@ public class RedLongPositions implements Positions {
         return obeliskObservePosition;
     }
 
+    @Override
+    public Pose getGoalPosition() {
+        return SpringTagPositions.RED;
+    }
+
     @Override
     public Pose getShortStartPosition() {
         return frontStartPosition;
@@ -102,6 +102,7 @@ public class DataLoggerTest extends LinearOpMode {
             testMotor.setInverted(InvertMotor); // Configurable inversion
 
             wifiMonitor = new WifiMonitor();
+            wifiMonitor.start();
 
         } catch (Exception e) {
             telemetry.addData("Error", "Could not initialize motor: " + e.getMessage());
@@ -194,6 +195,7 @@ public class DataLoggerTest extends LinearOpMode {
         } finally {
             // 3. Close Logger
             logger.close();
+            wifiMonitor.stop();
             if (testMotor != null) {
                 testMotor.set(0);
             }
@@ -46,6 +46,30 @@ public class MainTeleop extends OpModeTemplate {
         public static boolean LimeLight = false;
 
         public static boolean AutoAlign = false;
+
+        public static boolean Transfer = false;
+
+        public static boolean DriveToTarget = false;
+
+        /**
+         * Driver station filter for the SignalBus, by signal group.
+         */
+        public static boolean isEnabled(String group) {
+            switch (group) {
+                case "Shooter":
+                    return Shooter;
+                case "LimeLight":
+                    return LimeLight;
+                case "AutoAlign":
+                    return AutoAlign;
+                case "Transfer":
+                    return Transfer;
+                case "DriveToTarget":
+                    return DriveToTarget;
+                default:
+                    return false;
+            }
+        }
     }
 
     @Configurable
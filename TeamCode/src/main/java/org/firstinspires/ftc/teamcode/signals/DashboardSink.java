@@ -0,0 +1,36 @@
+package org.firstinspires.ftc.teamcode.signals;
+
+import com.acmerobotics.dashboard.FtcDashboard;
+import com.acmerobotics.dashboard.telemetry.TelemetryPacket;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Sends signals to FtcDashboard as one packet per publish, so they can be graphed.
+ */
+public class DashboardSink extends SignalSink {
+
+    private final FtcDashboard dashboard;
+    private TelemetryPacket packet;
+
+    public DashboardSink(FtcDashboard dashboard, IntSupplier periodMs, SignalFilter filter) {
+        super(periodMs, filter);
+        this.dashboard = dashboard;
+    }
+
+    @Override
+    protected void begin() {
+        packet = new TelemetryPacket();
+    }
+
+    @Override
+    protected void write(Signal signal) {
+        packet.put(signal.getKey(), signal.get());
+    }
+
+    @Override
+    protected void end() {
+        dashboard.sendTelemetryPacket(packet);
+        packet = null;
+    }
+}
@@ -0,0 +1,49 @@
+package org.firstinspires.ftc.teamcode.signals;
+
+import org.firstinspires.ftc.teamcode.datalogger.BooleanChannel;
+import org.firstinspires.ftc.teamcode.datalogger.DataLogger;
+import org.firstinspires.ftc.teamcode.datalogger.DoubleChannel;
+import org.firstinspires.ftc.teamcode.datalogger.LogChannel;
+
+/**
+ * Records signals as DataLogger channels, one row per loop. Only the signals registered when the
+ * sink is created become columns (named by {@link Signal#getName()}, using each signal's log
+ * policy), so create the sink after the signals and before {@link DataLogger#initializeLogging}.
+ */
+public class DataLoggerSink extends SignalSink {
+
+    private final DataLogger logger;
+    // Indexed by signal slot, null for signals without a column
+    private final DoubleChannel[] doubleChannels = new DoubleChannel[SignalBus.MAX_SIGNALS];
+    private final BooleanChannel[] booleanChannels = new BooleanChannel[SignalBus.MAX_SIGNALS];
+
+    public DataLoggerSink(DataLogger logger, SignalBus bus, SignalFilter filter) {
+        super(() -> 0, filter);
+        this.logger = logger;
+        for (Signal signal : bus.getSignals()) {
+            if (!filter.accept(signal)) {
+                continue;
+            }
+            if (signal.getType() == LogChannel.Type.BOOLEAN) {
+                booleanChannels[signal.getIndex()] = logger.addBoolean(signal.getName(), signal.getLogPolicy());
+            } else {
+                doubleChannels[signal.getIndex()] = logger.addDouble(signal.getName(), signal.getLogPolicy());
+            }
+        }
+    }
+
+    @Override
+    protected void write(Signal signal) {
+        int index = signal.getIndex();
+        if (doubleChannels[index] != null) {
+            doubleChannels[index].set(signal.get());
+        } else if (booleanChannels[index] != null) {
+            booleanChannels[index].set(signal.getBoolean());
+        }
+    }
+
+    @Override
+    protected void end() {
+        logger.commitRow();
+    }
+}
@@ -0,0 +1,39 @@
+package org.firstinspires.ftc.teamcode.signals;
+
+import android.util.Log;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Writes the selected signals as a single logcat line per publish, replacing the per-loop Log.i calls.
+ */
+public class LogcatSink extends SignalSink {
+
+    private final String tag;
+    private final StringBuilder line = new StringBuilder(256);
+
+    public LogcatSink(String tag, IntSupplier periodMs, SignalFilter filter) {
+        super(periodMs, filter);
+        this.tag = tag;
+    }
+
+    @Override
+    protected void begin() {
+        line.setLength(0);
+    }
+
+    @Override
+    protected void write(Signal signal) {
+        if (line.length() > 0) {
+            line.append(", ");
+        }
+        line.append(signal.getKey()).append('=').append(signal.get());
+    }
+
+    @Override
+    protected void end() {
+        if (line.length() > 0) {
+            Log.i(tag, line.toString());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.firstinspires.ftc.teamcode.signals;
+
+import org.firstinspires.ftc.teamcode.datalogger.LogChannel;
+import org.firstinspires.ftc.teamcode.datalogger.SamplingPolicy;
+
+/**
+ * One named numeric value on the {@link SignalBus}. Subsystems keep the handle from
+ * {@link SignalBus#addDouble} / {@link SignalBus#addBoolean} and call set() once per loop;
+ * setting a value is a single array store.
+ */
+public final class Signal {
+
+    private final String group;
+    private final String name;
+    private final String key;
+    private final LogChannel.Type type;
+    private final int index;
+    private final double[] values;
+    private SamplingPolicy logPolicy = SamplingPolicy.EVERY_LOOP;
+
+    Signal(String group, String name, LogChannel.Type type, int index, double[] values) {
+        this.group = group;
+        this.name = name;
+        this.key = group + "/" + name;
+        this.type = type;
+        this.index = index;
+        this.values = values;
+    }
+
+    public void set(double value) {
+        values[index] = value;
+    }
+
+    public void set(boolean value) {
+        values[index] = value ? 1 : 0;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    public double get() {
+        return values[index];
+    }
+
+    public boolean getBoolean() {
+        return values[index] != 0;
+    }
+
+    /** Subsystem (or command) that publishes the signal, e.g. "Shooter". */
+    public String getGroup() {
+        return group;
+    }
+
+    /** Name within the group, also used as the DataLogger column name. */
+    public String getName() {
+        return name;
+    }
+
+    /** "Group/Name", used as the telemetry caption. */
+    public String getKey() {
+        return key;
+    }
+
+    public LogChannel.Type getType() {
+        return type;
+    }
+
+    public SamplingPolicy getLogPolicy() {
+        return logPolicy;
+    }
+
+    /**
+     * How often a {@link DataLoggerSink} records this signal. Has to be set before the sink is created.
+     */
+    public Signal withLogPolicy(SamplingPolicy logPolicy) {
+        this.logPolicy = logPolicy;
+        return this;
+    }
+}
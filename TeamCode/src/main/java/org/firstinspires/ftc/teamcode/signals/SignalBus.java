@@ -0,0 +1,87 @@
+package org.firstinspires.ftc.teamcode.signals;
+
+import org.firstinspires.ftc.teamcode.datalogger.LogChannel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-opmode registry of named numeric signals. Subsystems and commands publish their values
+ * once per loop into preallocated slots; the opmode base classes call {@link #publish()} at the
+ * end of every loop, and each {@link SignalSink} (driver station telemetry, FtcDashboard,
+ * Panels, logcat, DataLogger) samples the slots at its own rate and with its own filter.
+ *
+ * Publishing a value never formats strings or talks to a sink, so turning a sink on does not
+ * add work to the control code in periodic()/execute().
+ */
+public final class SignalBus {
+
+    public static final int MAX_SIGNALS = 256;
+
+    private static SignalBus instance = new SignalBus();
+
+    private final double[] values = new double[MAX_SIGNALS];
+    private final List<Signal> signals = new ArrayList<>();
+    private final Map<String, Signal> signalsByKey = new HashMap<>();
+    private final List<SignalSink> sinks = new ArrayList<>();
+
+    private SignalBus() {
+    }
+
+    public static SignalBus get() {
+        return instance;
+    }
+
+    /**
+     * Drops all signals and sinks. Called by the opmode base classes before any subsystem is created.
+     */
+    public static void reset() {
+        instance = new SignalBus();
+    }
+
+    public Signal addDouble(String group, String name) {
+        return add(group, name, LogChannel.Type.DOUBLE);
+    }
+
+    public Signal addBoolean(String group, String name) {
+        return add(group, name, LogChannel.Type.BOOLEAN);
+    }
+
+    /**
+     * Commands are constructed many times per opmode, registering the same signal again returns the existing slot.
+     */
+    private Signal add(String group, String name, LogChannel.Type type) {
+        String key = group + "/" + name;
+        Signal existing = signalsByKey.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (signals.size() >= MAX_SIGNALS) {
+            throw new IllegalStateException("SignalBus supports at most " + MAX_SIGNALS + " signals");
+        }
+        Signal signal = new Signal(group, name, type, signals.size(), values);
+        signals.add(signal);
+        signalsByKey.put(key, signal);
+        return signal;
+    }
+
+    public List<Signal> getSignals() {
+        return signals;
+    }
+
+    public void addSink(SignalSink sink) {
+        sinks.add(sink);
+    }
+
+    /**
+     * Hands the current values to every sink that is due. Call once per loop, after the scheduler ran.
+     */
+    public void publish() {
+        long now = System.nanoTime();
+        for (int i = 0; i < sinks.size(); i++) {
+            sinks.get(i).publish(signals, now);
+        }
+    }
+}
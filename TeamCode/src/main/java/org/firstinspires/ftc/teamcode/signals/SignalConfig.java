@@ -0,0 +1,28 @@
+package org.firstinspires.ftc.teamcode.signals;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.bylazar.configurables.annotations.Configurable;
+
+/**
+ * Rates and filters of the sinks the opmode base classes attach to the {@link SignalBus}.
+ * Filters are comma separated "Group/Name" prefixes, "*" = everything, "" = sink off.
+ * Which groups reach the driver station is still chosen with the MainTeleop.Telemetry flags.
+ */
+@Config
+@Configurable
+public class SignalConfig {
+
+    public static int DriverStationPeriodMs = 100;
+
+    public static int DashboardPeriodMs = 50;
+
+    public static String DashboardFilter = "";
+
+    public static int PanelsPeriodMs = 100;
+
+    public static String PanelsFilter = "";
+
+    public static int LogcatPeriodMs = 1000;
+
+    public static String LogcatFilter = "Shooter";
+}
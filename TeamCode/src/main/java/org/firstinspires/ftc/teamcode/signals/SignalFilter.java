@@ -0,0 +1,65 @@
+package org.firstinspires.ftc.teamcode.signals;
+
+import java.util.function.Supplier;
+
+/**
+ * Selects the signals a {@link SignalSink} outputs.
+ */
+public interface SignalFilter {
+
+    boolean accept(Signal signal);
+
+    /**
+     * Checked once per publish before any signal; a sink whose filter accepts nothing is skipped entirely.
+     */
+    default boolean acceptsAny() {
+        return true;
+    }
+
+    static SignalFilter all() {
+        return signal -> true;
+    }
+
+    static SignalFilter group(String group) {
+        return signal -> signal.getGroup().equals(group);
+    }
+
+    /**
+     * Comma separated key prefixes, e.g. "Shooter,LimeLight/Distance". "*" accepts everything and an
+     * empty string nothing. The spec is re-read on every publish so it can be edited from the dashboard.
+     */
+    static SignalFilter prefixes(Supplier<String> spec) {
+        return new SignalFilter() {
+            private String parsedSpec;
+            private String[] prefixes = new String[0];
+
+            @Override
+            public boolean acceptsAny() {
+                return current().length > 0;
+            }
+
+            @Override
+            public boolean accept(Signal signal) {
+                for (String prefix : current()) {
+                    if (prefix.equals("*") || signal.getKey().startsWith(prefix)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            // Both methods re-read the spec, callers may use accept() without acceptsAny() (e.g. DataLoggerSink)
+            private String[] current() {
+                String current = spec.get();
+                if (current == null) {
+                    current = "";
+                }
+                if (!current.equals(parsedSpec)) {
+                    parsedSpec = current;
+                    prefixes = current.trim().isEmpty() ? new String[0] : current.trim().split("\\s*,\\s*");
+                }
+                return prefixes;
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package org.firstinspires.ftc.teamcode.signals;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Output of the {@link SignalBus}. The period and filter are read on every publish, so sinks
+ * backed by dashboard config values can be retuned while the opmode runs.
+ */
+public abstract class SignalSink {
+
+    private final IntSupplier periodMs;
+    private final SignalFilter filter;
+    private long lastPublishNanos;
+    private boolean published;
+
+    /**
+     * @param periodMs minimum time between two outputs, 0 = every loop
+     */
+    protected SignalSink(IntSupplier periodMs, SignalFilter filter) {
+        this.periodMs = periodMs;
+        this.filter = filter;
+    }
+
+    final void publish(List<Signal> signals, long nowNanos) {
+        if (published && nowNanos - lastPublishNanos < TimeUnit.MILLISECONDS.toNanos(periodMs.getAsInt())) {
+            return;
+        }
+        if (!filter.acceptsAny()) {
+            return;
+        }
+        published = true;
+        lastPublishNanos = nowNanos;
+
+        begin();
+        for (int i = 0; i < signals.size(); i++) {
+            Signal signal = signals.get(i);
+            if (filter.accept(signal)) {
+                write(signal);
+            }
+        }
+        end();
+    }
+
+    protected void begin() {
+    }
+
+    protected abstract void write(Signal signal);
+
+    protected void end() {
+    }
+}
@@ -0,0 +1,43 @@
+package org.firstinspires.ftc.teamcode.signals;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.datalogger.LogChannel;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Writes signals as "Group/Name" captions to an FTC {@link Telemetry}, e.g. the driver station
+ * or Panels (PanelsTelemetry.INSTANCE.getFtcTelemetry()), followed by one update().
+ */
+public class TelemetrySink extends SignalSink {
+
+    private final Telemetry telemetry;
+    private boolean wroteAny;
+
+    public TelemetrySink(Telemetry telemetry, IntSupplier periodMs, SignalFilter filter) {
+        super(periodMs, filter);
+        this.telemetry = telemetry;
+    }
+
+    @Override
+    protected void begin() {
+        wroteAny = false;
+    }
+
+    @Override
+    protected void write(Signal signal) {
+        if (signal.getType() == LogChannel.Type.BOOLEAN) {
+            telemetry.addData(signal.getKey(), signal.getBoolean());
+        } else {
+            telemetry.addData(signal.getKey(), signal.get());
+        }
+        wroteAny = true;
+    }
+
+    @Override
+    protected void end() {
+        if (wroteAny) {
+            telemetry.update();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.firstinspires.ftc.teamcode.subsystems;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.bylazar.configurables.annotations.Configurable;
+
+import org.firstinspires.ftc.teamcode.util.LoopProfiler;
+
+import java.util.Locale;
+
+/**
+ * Runs subsystem periodic work at the rate of its {@link RateGroup} instead of every loop. The
+ * opmode base classes call {@link #beginLoop(long)} once per loop, {@link SounderBotSubsystemBase}
+ * skips doPeriodic() while its group is not due.
+ *
+ * Control runs every loop unless ControlHz is set. The slower groups are staggered: when more than
+ * one of them is due in the same loop, only the most overdue runs and the others follow in the
+ * next loops, so the vision, UI and diagnostics work never piles up in one loop.
+ *
+ * With the profiler enabled the time of each group per loop it ran is recorded as a
+ * "Group&lt;Name&gt;" section.
+ */
+public final class RateScheduler {
+
+    @Config
+    @Configurable
+    public static class RateSchedulerConfig {
+        // Read when the opmode initializes, off runs every group every loop
+        public static boolean Enabled = false;
+
+        // 0 runs every loop
+        public static double ControlHz = 0;
+
+        public static double VisionHz = 30;
+
+        public static double UiHz = 10;
+
+        public static double DiagnosticsHz = 1;
+    }
+
+    public enum RateGroup {
+        // Closed loops and driver input
+        CONTROL,
+        // Reading camera results
+        VISION,
+        // Lights, rumble, servos that only follow state
+        UI,
+        // Statistics that change slower than anyone reads them
+        DIAGNOSTICS
+    }
+
+    private static final RateGroup[] GROUPS = RateGroup.values();
+
+    private static RateScheduler instance = new RateScheduler(false);
+
+    private final boolean enabled;
+    private final long[] periodNanos = new long[GROUPS.length];
+    private final long[] nextNanos = new long[GROUPS.length];
+    private final boolean[] due = new boolean[GROUPS.length];
+    private final long[] groupNanos = new long[GROUPS.length];
+    private final int[] sections = new int[GROUPS.length];
+    private boolean started;
+
+    private RateScheduler(boolean enabled) {
+        this.enabled = enabled;
+        periodNanos[RateGroup.CONTROL.ordinal()] = period(RateSchedulerConfig.ControlHz);
+        periodNanos[RateGroup.VISION.ordinal()] = period(RateSchedulerConfig.VisionHz);
+        periodNanos[RateGroup.UI.ordinal()] = period(RateSchedulerConfig.UiHz);
+        periodNanos[RateGroup.DIAGNOSTICS.ordinal()] = period(RateSchedulerConfig.DiagnosticsHz);
+        LoopProfiler profiler = LoopProfiler.get();
+        for (RateGroup group : GROUPS) {
+            String name = group.name();
+            sections[group.ordinal()] = profiler.section("Group" + name.charAt(0) + name.substring(1).toLowerCase(Locale.US));
+            due[group.ordinal()] = true;
+        }
+    }
+
+    public static RateScheduler get() {
+        return instance;
+    }
+
+    /**
+     * Starts scheduling for the opmode that is initializing, enabled by
+     * {@link RateSchedulerConfig#Enabled}. Called after {@link LoopProfiler#reset()}.
+     */
+    public static void reset() {
+        instance = new RateScheduler(RateSchedulerConfig.Enabled);
+    }
+
+    /** Decides which groups run in the loop starting at nowNanos. */
+    public void beginLoop(long nowNanos) {
+        LoopProfiler profiler = LoopProfiler.get();
+        for (int i = 0; i < GROUPS.length; i++) {
+            if (groupNanos[i] > 0) {
+                profiler.record(sections[i], groupNanos[i]);
+                groupNanos[i] = 0;
+            }
+        }
+        if (!enabled) {
+            return;
+        }
+        if (!started) {
+            started = true;
+            // Spread the first runs of the slower groups over their periods
+            for (int i = 0; i < GROUPS.length; i++) {
+                nextNanos[i] = nowNanos + periodNanos[i] * i / GROUPS.length;
+            }
+        }
+
+        int control = RateGroup.CONTROL.ordinal();
+        due[control] = isElapsed(control, nowNanos);
+        if (due[control]) {
+            advance(control, nowNanos);
+        }
+
+        int mostOverdue = -1;
+        double mostOverdueFraction = -1;
+        for (int i = 0; i < GROUPS.length; i++) {
+            if (i == control) {
+                continue;
+            }
+            if (periodNanos[i] == 0) {
+                // Configured to run every loop, nothing to stagger
+                due[i] = true;
+                continue;
+            }
+            due[i] = false;
+            if (nowNanos >= nextNanos[i]) {
+                double fraction = (double) (nowNanos - nextNanos[i]) / periodNanos[i];
+                if (fraction > mostOverdueFraction) {
+                    mostOverdue = i;
+                    mostOverdueFraction = fraction;
+                }
+            }
+        }
+        if (mostOverdue >= 0) {
+            due[mostOverdue] = true;
+            advance(mostOverdue, nowNanos);
+        }
+    }
+
+    /** Whether the group runs in this loop, always true when scheduling is off. */
+    public boolean isDue(RateGroup group) {
+        return due[group.ordinal()];
+    }
+
+    /** Adds periodic time of one subsystem to its group for this loop. */
+    public void addTime(RateGroup group, long nanos) {
+        groupNanos[group.ordinal()] += nanos;
+    }
+
+    private boolean isElapsed(int group, long nowNanos) {
+        return periodNanos[group] == 0 || nowNanos >= nextNanos[group];
+    }
+
+    private void advance(int group, long nowNanos) {
+        nextNanos[group] += periodNanos[group];
+        if (nextNanos[group] <= nowNanos) {
+            // Fell behind by more than a period, don't run the group in a burst to catch up
+            nextNanos[group] = nowNanos + periodNanos[group];
+        }
+    }
+
+    private static long period(double hz) {
+        return hz > 0 ? (long) (1.0E9 / hz) : 0;
+    }
+}
@@ -0,0 +1,48 @@
+package org.firstinspires.ftc.teamcode.subsystems;
+
+import com.arcrobotics.ftclib.command.SubsystemBase;
+
+import org.firstinspires.ftc.teamcode.subsystems.RateScheduler.RateGroup;
+import org.firstinspires.ftc.teamcode.util.LoopProfiler;
+
+/**
+ * Base for subsystems with per-loop work. Put that work in {@link #doPeriodic()} so the
+ * {@link LoopProfiler} can time it and the {@link RateScheduler} can run it at its group's rate.
+ */
+public abstract class SounderBotSubsystemBase extends SubsystemBase {
+
+    private final int profilerSection;
+
+    protected SounderBotSubsystemBase() {
+        String name = getClass().getSimpleName();
+        if (name.isEmpty()) {
+            // Anonymous subclasses, e.g. the TransferChamber in CommandAutoOpMode
+            name = getClass().getSuperclass().getSimpleName();
+        }
+        profilerSection = LoopProfiler.get().section(name);
+    }
+
+    @Override
+    public void periodic() {
+        RateGroup group = getRateGroup();
+        RateScheduler scheduler = RateScheduler.get();
+        if (!scheduler.isDue(group)) {
+            return;
+        }
+        LoopProfiler profiler = LoopProfiler.get();
+        long start = profiler.start();
+        doPeriodic();
+        scheduler.addTime(group, profiler.stop(profilerSection, start));
+    }
+
+    protected void doPeriodic() {
+    }
+
+    /**
+     * Rate at which {@link #doPeriodic()} runs when the {@link RateScheduler} is enabled. Work that
+     * closes a loop or reads the gamepads stays in CONTROL, which runs every loop by default.
+     */
+    protected RateGroup getRateGroup() {
+        return RateGroup.CONTROL;
+    }
+}
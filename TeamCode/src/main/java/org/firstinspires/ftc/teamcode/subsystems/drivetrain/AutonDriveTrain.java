@@ -12,8 +12,6 @@ public class AutonDriveTrain extends DriveTrainBase {
 
     private static final String LOG_TAG = AutonDriveTrain.class.getSimpleName();
 
-    GoBildaPinpointDriver pinpoint;
-
     public AutonDriveTrain(HardwareMap hardwareMap, Telemetry telemetry) {
         super(hardwareMap, telemetry);
 
@@ -23,17 +21,20 @@ public class AutonDriveTrain extends DriveTrainBase {
     protected void initHardware(HardwareMap hardwareMap) {
         super.initHardware(hardwareMap);
 
-        this.pinpoint = hardwareMap.get(GoBildaPinpointDriver.class, "pinpoint");
+        if (this.pinpoint == null) {
+            // Pedro needs the Pinpoint in auton, fail the same way hardwareMap.get() would
+            this.pinpoint = hardwareMap.get(GoBildaPinpointDriver.class, "pinpoint");
+        }
         this.pinpoint.resetPosAndIMU();
         pinpoint.setEncoderResolution(GoBildaPinpointDriver.GoBildaOdometryPods.goBILDA_SWINGARM_POD);
         pinpoint.setEncoderDirections(GoBildaPinpointDriver.EncoderDirection.REVERSED, GoBildaPinpointDriver.EncoderDirection.REVERSED);
     }
 
     public void setWheelsPower(double frontLeftPower, double frontRightPower, double backLeftPower, double backRightPower) {
-        frontLeft.motor.setPower(frontLeftPower);
-        frontRight.motor.setPower(frontRightPower);
-        backLeft.motor.setPower(backLeftPower);
-        backRight.motor.setPower(backRightPower);
+        frontLeft.set(frontLeftPower);
+        frontRight.set(frontRightPower);
+        backLeft.set(backLeftPower);
+        backRight.set(backRightPower);
     }
 
     public void stop() {
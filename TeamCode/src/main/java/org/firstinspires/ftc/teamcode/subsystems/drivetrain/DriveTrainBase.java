@@ -1,44 +1,51 @@
 package org.firstinspires.ftc.teamcode.subsystems.drivetrain;
 
-import com.arcrobotics.ftclib.command.SubsystemBase;
 import com.arcrobotics.ftclib.drivebase.MecanumDrive;
 import com.arcrobotics.ftclib.hardware.motors.Motor;
-import com.arcrobotics.ftclib.hardware.motors.MotorEx;
+import com.qualcomm.hardware.gobilda.GoBildaPinpointDriver;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.teamcode.hardware.CachedMotorEx;
+import org.firstinspires.ftc.teamcode.subsystems.SounderBotSubsystemBase;
 
 import lombok.Getter;
 
-public class DriveTrainBase extends SubsystemBase {
+public class DriveTrainBase extends SounderBotSubsystemBase {
 
     protected Telemetry telemetry;
 
     @Getter
-    MotorEx backRight;
+    CachedMotorEx backRight;
 
     @Getter
-    MotorEx backLeft;
+    CachedMotorEx backLeft;
 
     @Getter
-    MotorEx frontRight;
+    CachedMotorEx frontRight;
 
     @Getter
-    MotorEx frontLeft;
+    CachedMotorEx frontLeft;
 
     @Getter
     MecanumDrive mecanumDrive;
 
+    // Null when the configuration has no Pinpoint
+    @Getter
+    protected GoBildaPinpointDriver pinpoint;
+
     public DriveTrainBase(HardwareMap hardwareMap, Telemetry telemetry) {
         this.telemetry = telemetry;
         initHardware(hardwareMap);
     }
 
     protected void initHardware(HardwareMap hardwareMap) {
-        this.backLeft = new MotorEx(hardwareMap, "BL", Motor.GoBILDA.RPM_435);
-        this.backRight = new MotorEx(hardwareMap, "BR", Motor.GoBILDA.RPM_435);
-        this.frontLeft = new MotorEx(hardwareMap, "FL", Motor.GoBILDA.RPM_435);
-        this.frontRight = new MotorEx(hardwareMap, "FR", Motor.GoBILDA.RPM_435);
+        this.backLeft = new CachedMotorEx(hardwareMap, "BL", Motor.GoBILDA.RPM_435);
+        this.backRight = new CachedMotorEx(hardwareMap, "BR", Motor.GoBILDA.RPM_435);
+        this.frontLeft = new CachedMotorEx(hardwareMap, "FL", Motor.GoBILDA.RPM_435);
+        this.frontRight = new CachedMotorEx(hardwareMap, "FR", Motor.GoBILDA.RPM_435);
+        this.pinpoint = hardwareMap.tryGet(GoBildaPinpointDriver.class, "pinpoint");
 
         this.backLeft.setZeroPowerBehavior( Motor.ZeroPowerBehavior.BRAKE);
         this.backRight.setZeroPowerBehavior( Motor.ZeroPowerBehavior.BRAKE);
@@ -84,6 +91,19 @@ public class DriveTrainBase extends SubsystemBase {
         motor.resetEncoder();
     }
 
+    public boolean hasHeadingSensor() {
+        return pinpoint != null;
+    }
+
+    /**
+     * Reads only the heading register of the Pinpoint (one short I2C transaction) and returns it
+     * in radians, counter-clockwise positive.
+     */
+    public double readHeading() {
+        pinpoint.update(GoBildaPinpointDriver.ReadData.ONLY_UPDATE_HEADING);
+        return pinpoint.getHeading(AngleUnit.RADIANS);
+    }
+
     public void Turn(double speed) {
         mecanumDrive.driveRobotCentric(0, 0, speed);
     }
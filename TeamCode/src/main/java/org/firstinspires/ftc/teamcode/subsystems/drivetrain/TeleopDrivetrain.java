@@ -18,9 +18,7 @@ public class TeleopDrivetrain extends DriveTrainBase {
     }
 
     @Override
-    public void periodic() {
-        super.periodic();
-
+    protected void doPeriodic() {
         // A bit tricky here. If autoalign is turned on, then we turn off this teleop drive
         // since it counteracts the power sent for alignment (causes jerky motion).
         // We revert back to teleop behavior after the command complete - either
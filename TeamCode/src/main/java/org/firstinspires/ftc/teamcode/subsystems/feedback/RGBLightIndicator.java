@@ -4,13 +4,13 @@ import com.acmerobotics.dashboard.config.Config;
 import com.arcrobotics.ftclib.command.SubsystemBase;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.PwmControl;
-import com.qualcomm.robotcore.hardware.Servo;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.hardware.CachedServo;
 
 public class RGBLightIndicator extends SubsystemBase {
 
-    Servo rgbIndicator;
+    CachedServo rgbIndicator;
     Telemetry telemetry;
     String configString;
     private static Double OFF_COL = 0.0;
@@ -27,9 +27,9 @@ public class RGBLightIndicator extends SubsystemBase {
     public RGBLightIndicator(HardwareMap hardwareMap, Telemetry telemetry, String configString) {
         this.telemetry = telemetry;
         this.configString = configString;
-        rgbIndicator = hardwareMap.get(Servo.class, configString);
-        if (rgbIndicator.getController() instanceof PwmControl) {
-            ((PwmControl) rgbIndicator.getController()).setPwmRange(new PwmControl.PwmRange(500, 2500));
+        rgbIndicator = new CachedServo(hardwareMap, configString);
+        if (rgbIndicator.getServo().getController() instanceof PwmControl) {
+            ((PwmControl) rgbIndicator.getServo().getController()).setPwmRange(new PwmControl.PwmRange(500, 2500));
         }
     }
 
@@ -50,12 +50,12 @@ public class RGBLightIndicator extends SubsystemBase {
     }
 
     /**
-     * Sets the color of the RGB Indicator using PWM values.
+     * Sets the color of the RGB Indicator using PWM values. Callers set the color every loop,
+     * the servo is only written when the color changes.
      * @param position The position value (0.0 to 1.0) corresponding to the desired color.
      */
     private void setColor(double position) {
         rgbIndicator.setPosition(position);
-        telemetry.update();
     }
 
 }
@@ -1,30 +1,28 @@
 package org.firstinspires.ftc.teamcode.subsystems.scoring;
 
-import com.arcrobotics.ftclib.command.SubsystemBase;
 import com.arcrobotics.ftclib.gamepad.GamepadEx;
-import com.arcrobotics.ftclib.hardware.motors.Motor;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.hardware.CachedMotor;
+import org.firstinspires.ftc.teamcode.subsystems.SounderBotSubsystemBase;
 
-public class Intake extends SubsystemBase {
+public class Intake extends SounderBotSubsystemBase {
 
     Telemetry telemetry;
     GamepadEx gamepad;
-    Motor motor;
+    CachedMotor motor;
 
 
     public Intake(HardwareMap hardwareMap, GamepadEx gamepad, Telemetry telemetry) {
         this.gamepad = gamepad;
         this.telemetry = telemetry;
 
-        this.motor = new Motor(hardwareMap, "FrontIntake");
+        this.motor = new CachedMotor(hardwareMap, "FrontIntake");
     }
 
     @Override
-    public void periodic() {
-        super.periodic();
-
+    protected void doPeriodic() {
 //        if(Math.abs(gamepad.getLeftY()) > .2) {
 //            motor.set(gamepad.getLeftY() * SingleShooter.ShooterConfig.IntakeMaxPower);
 //        } else {
@@ -0,0 +1,92 @@
+package org.firstinspires.ftc.teamcode.subsystems.scoring;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.bylazar.configurables.annotations.Configurable;
+
+import org.firstinspires.ftc.teamcode.util.PoseHistory;
+
+/**
+ * Aim point for a shot taken while the robot is still moving. The ball leaves with the robot's
+ * velocity added to the launch velocity, so instead of the goal the shooter has to aim at a
+ * virtual goal moved back by robot velocity times time of flight. Time of flight depends on the
+ * distance to that virtual goal, so the two are solved by a few fixed-point iterations, which
+ * converge quickly at drivetrain speeds.
+ *
+ * The robot position is first projected forward by the release latency (feed command to ball
+ * leaving the flywheels), as that is where the shot actually starts from.
+ *
+ * Units are Pedro field coordinates: inches, inches/s and radians. Results are kept in fields, so
+ * solving never allocates.
+ */
+public final class MovingShotSolver {
+
+    @Config
+    @Configurable
+    public static class MovingShotConfig {
+        // Drive into the shooting pose and feed while still decelerating, instead of settling first
+        public static boolean Enabled = false;
+
+        // Average horizontal ball speed between the flywheels and the goal
+        public static double ShotSpeedInchesPerSecond = 160;
+
+        // From turning on the top rollers to the ball leaving the flywheels
+        public static double ReleaseLatencyMs = 120;
+
+        public static int Iterations = 3;
+
+        // Feed gate
+        public static double MaxFeedSpeedInchesPerSecond = 18;
+
+        public static double MaxAimErrorDegrees = 4;
+
+        // Below this the robot counts as stopped, whether or not it is still slowing down
+        public static double StoppedSpeedInchesPerSecond = 2;
+    }
+
+    private double distance;
+    private double aimHeading;
+    private double leadAngle;
+    private double timeOfFlight;
+
+    /**
+     * Solves for the robot at (x, y) moving with field velocity (vx, vy), shooting at (goalX, goalY).
+     */
+    public void solve(double x, double y, double vx, double vy, double goalX, double goalY) {
+        double latency = MovingShotConfig.ReleaseLatencyMs / 1000.0;
+        double releaseX = x + vx * latency;
+        double releaseY = y + vy * latency;
+
+        double dx = goalX - releaseX;
+        double dy = goalY - releaseY;
+        double tof = 0;
+        for (int i = 0; i < MovingShotConfig.Iterations; i++) {
+            tof = Math.hypot(dx, dy) / MovingShotConfig.ShotSpeedInchesPerSecond;
+            dx = goalX - vx * tof - releaseX;
+            dy = goalY - vy * tof - releaseY;
+        }
+
+        distance = Math.hypot(dx, dy);
+        aimHeading = Math.atan2(dy, dx);
+        leadAngle = PoseHistory.angleDifference(aimHeading, Math.atan2(goalY - releaseY, goalX - releaseX));
+        timeOfFlight = tof;
+    }
+
+    /** Distance to the virtual goal, what the shot table should be looked up with. */
+    public double getDistance() {
+        return distance;
+    }
+
+    /** Field heading from the release point to the virtual goal. */
+    public double getAimHeading() {
+        return aimHeading;
+    }
+
+    /** Aim heading minus the bearing of the real goal, 0 for a stationary robot. */
+    public double getLeadAngle() {
+        return leadAngle;
+    }
+
+    public double getTimeOfFlight() {
+        return timeOfFlight;
+    }
+}
@@ -0,0 +1,95 @@
+package org.firstinspires.ftc.teamcode.subsystems.scoring;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.bylazar.configurables.annotations.Configurable;
+
+/**
+ * Predicts when both flywheels will be within tolerance of the setpoint, from their filtered
+ * velocity and acceleration. A fed ball takes FeedLeadMs to reach the wheels, so feeding can start
+ * once the wheels are predicted ready within that time instead of after they are.
+ *
+ * A wheel that is inside tolerance is ready now. One outside tolerance and accelerating towards the
+ * setpoint reaches the tolerance edge after (|error| - tolerance) / |acceleration|; one moving away
+ * or not at all never does. The wheels are also required to be within the mismatch limit of each
+ * other at the predicted time, as the stationary check requires now.
+ */
+public final class ReadyPredictor {
+
+    @Config
+    @Configurable
+    public static class ReadyPredictorConfig {
+        // Start feeding on the prediction, otherwise it is only logged
+        public static boolean Enabled = false;
+
+        // From starting the top roller to the ball touching the flywheels
+        public static double FeedLeadMs = 150;
+
+        // Weight of a new sample in the velocity and acceleration filters
+        public static double VelocitySmoothing = 0.5;
+
+        public static double AccelerationSmoothing = 0.3;
+    }
+
+    private final Wheel left = new Wheel();
+    private final Wheel right = new Wheel();
+    private long lastNanos;
+    private double timeToReadyMs = Double.POSITIVE_INFINITY;
+
+    /** Feeds one loop; tolerance and mismatch are the limits of the stationary ready check. */
+    public void update(long nowNanos, double setpoint, double leftVelocity, double rightVelocity, double tolerance, double mismatch) {
+        double dt = lastNanos == 0 ? 0 : (nowNanos - lastNanos) / 1.0E9;
+        lastNanos = nowNanos;
+        left.update(leftVelocity, dt);
+        right.update(rightVelocity, dt);
+
+        double t = Math.max(left.secondsToReach(setpoint, tolerance), right.secondsToReach(setpoint, tolerance));
+        if (Double.isInfinite(t)) {
+            timeToReadyMs = Double.POSITIVE_INFINITY;
+            return;
+        }
+        double leftAt = left.velocity + left.acceleration * t;
+        double rightAt = right.velocity + right.acceleration * t;
+        timeToReadyMs = Math.abs(leftAt - rightAt) < mismatch ? t * 1000 : Double.POSITIVE_INFINITY;
+    }
+
+    /** Predicted time until both wheels are ready, 0 when they are, infinite when they are not heading there. */
+    public double getTimeToReadyMs() {
+        return timeToReadyMs;
+    }
+
+    /** A ball fed now would reach wheels that are ready. */
+    public boolean isReadyWithinFeedLead() {
+        return timeToReadyMs <= ReadyPredictorConfig.FeedLeadMs;
+    }
+
+    private static final class Wheel {
+        double velocity;
+        double acceleration;
+        boolean initialized;
+
+        void update(double measured, double dt) {
+            if (!initialized) {
+                velocity = measured;
+                initialized = true;
+                return;
+            }
+            if (dt <= 0) {
+                return;
+            }
+            double previous = velocity;
+            velocity += ReadyPredictorConfig.VelocitySmoothing * (measured - velocity);
+            acceleration += ReadyPredictorConfig.AccelerationSmoothing * ((velocity - previous) / dt - acceleration);
+        }
+
+        double secondsToReach(double setpoint, double tolerance) {
+            double error = setpoint - velocity;
+            if (Math.abs(error) < tolerance) {
+                return 0;
+            }
+            if (acceleration == 0 || Math.signum(acceleration) != Math.signum(error)) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return (Math.abs(error) - tolerance) / Math.abs(acceleration);
+        }
+    }
+}
@@ -1,39 +1,63 @@
 package org.firstinspires.ftc.teamcode.subsystems.scoring;
 
+import android.os.Environment;
 import android.util.Log;
 
 import com.acmerobotics.dashboard.config.Config;
-import com.arcrobotics.ftclib.command.SubsystemBase;
 import com.arcrobotics.ftclib.controller.PIDFController;
 import com.arcrobotics.ftclib.controller.wpilibcontroller.SimpleMotorFeedforward;
 import com.arcrobotics.ftclib.gamepad.GamepadEx;
 import com.arcrobotics.ftclib.hardware.motors.Motor;
-import com.arcrobotics.ftclib.hardware.motors.MotorEx;
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.Servo;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
 import org.firstinspires.ftc.teamcode.common.AprilTagPosition;
+import org.firstinspires.ftc.teamcode.control.LoopClock;
 import org.firstinspires.ftc.teamcode.datalogger.DataLogger;
-import org.firstinspires.ftc.teamcode.opmodes.teleop.MainTeleop;
+import org.firstinspires.ftc.teamcode.datalogger.SamplingPolicy;
+import org.firstinspires.ftc.teamcode.hardware.BatteryVoltage;
+import org.firstinspires.ftc.teamcode.hardware.CachedMotorEx;
+import org.firstinspires.ftc.teamcode.hardware.CachedServo;
+import org.firstinspires.ftc.teamcode.signals.DataLoggerSink;
+import org.firstinspires.ftc.teamcode.signals.Signal;
+import org.firstinspires.ftc.teamcode.signals.SignalBus;
+import org.firstinspires.ftc.teamcode.signals.SignalFilter;
+import org.firstinspires.ftc.teamcode.subsystems.RateScheduler;
+import org.firstinspires.ftc.teamcode.subsystems.RateScheduler.RateGroup;
+import org.firstinspires.ftc.teamcode.subsystems.SounderBotSubsystemBase;
 import org.firstinspires.ftc.teamcode.subsystems.feedback.RGBLightIndicator;
 import org.firstinspires.ftc.teamcode.subsystems.vision.LimeLightAlign;
 import org.firstinspires.ftc.teamcode.util.WifiMonitor;
 
-public class Shooter extends SubsystemBase {
+import java.io.File;
+import java.io.IOException;
+
+public class Shooter extends SounderBotSubsystemBase {
 
     private static final String LOG_TAG = Shooter.class.getSimpleName();
     Telemetry telemetry;
     GamepadEx gamepad;
-    MotorEx leftFlywheel, rightFlywheel;
+    CachedMotorEx leftFlywheel, rightFlywheel;
 
-    Servo liftServo;
+    CachedServo liftServo;
 
     RGBLightIndicator speedIndicator;
     DataLogger logger;
     WifiMonitor wifiMonitor;
 
-    AutoSpeed lastKnownNonDefault;
+    // Shot used before the goal was ever seen
+    private static final double DEFAULT_AUTO_TPS = 695;
+    private static final double DEFAULT_AUTO_TILT = 0.9;
+
+    // GetAutoSpeed() returns this object, updated in place. It keeps the last shot seen while the tag is lost.
+    private final AutoSpeed autoSpeedResult = new AutoSpeed(DEFAULT_AUTO_TPS, DEFAULT_AUTO_TILT);
+    private final ShotTable.Shot shot = new ShotTable.Shot();
+    private ShotTable shotTable;
+    // Frame the auto speed was last looked up from, and when a goal was last seen in one
+    private long autoSpeedFrameId;
+    private long autoSpeedSeenNanos;
+    // Set by the moving-shot command, replaces the camera distance while it is not NaN
+    private double shotDistanceOverride = Double.NaN;
 
     @Config
     public static class ShooterConfig {
@@ -58,10 +82,34 @@ public class Shooter extends SubsystemBase {
 
         public static double FlywheelAcceptableTpsError = 40;
 
-        public static long AutoSpeedCheckSkipCount = 10;
+        // Auto speed falls back to the default shot when the goal has not been seen for this long, 0 holds the last shot forever
+        public static double AutoSpeedHoldMs = 0;
 
     }
 
+    @Config
+    public static class ShotTableConfig {
+        // CSV files in /sdcard/FIRST, written with the built-in table when missing
+        public static String FileName = "ShotTable.csv";
+
+        public static String DemoFileName = "ShotTableDemo.csv";
+
+        // Set from the dashboard to re-read the file, resets itself once loaded
+        public static boolean Reload = false;
+    }
+
+    // Points behind the previous 10-inch bins, each bin used the value measured at its upper edge
+    private static final ShotTable DEFAULT_SHOT_TABLE = new ShotTable(
+            new double[]{44, 54, 64, 74, 84, 94, 114, 124, 134},
+            new double[]{730, 710, 720, 740, 740, 760, 810, 825, 845},
+            new double[]{0.95, 0.95, 0.95, 0.95, 0.95, 0.95, 0.95, 0.95, 0.95});
+
+    // Exaggerated tilt to help in demos, flywheels stay at one speed
+    private static final ShotTable DEMO_SHOT_TABLE = new ShotTable(
+            new double[]{44, 54, 64, 74, 84, 94, 134},
+            new double[]{695, 695, 695, 695, 695, 695, 695},
+            new double[]{0.95, 0.85, 0.75, 0.65, 0.55, 0.45, 0.45});
+
     @Config
     public static class ShooterControlConfig {
 
@@ -81,7 +129,18 @@ public class Shooter extends SubsystemBase {
 
         public static double kv_right = 0.00038;
 
-        public static double ka = .01;
+        // Only applied with the profile, a stepped setpoint has no acceleration. The old .01 was never
+        // used and would saturate the output at any ramp rate; fit it with derive_coefficients.py
+        public static double ka = 0;
+
+        // Ramp the setpoint towards a new target instead of stepping it, the kA feedforward then
+        // supplies the acceleration and the PID only corrects
+        public static boolean ProfileEnabled = false;
+
+        public static double MaxAccelTpsPerSecond = 2500;
+
+        // The wheels float, they can't slow down much faster than friction stops them
+        public static double MaxDecelTpsPerSecond = 1200;
     }
 
     SimpleMotorFeedforward leftFeedforward = new SimpleMotorFeedforward(ShooterControlConfig.ks, ShooterControlConfig.kv_left, ShooterControlConfig.ka);
@@ -90,16 +149,31 @@ public class Shooter extends SubsystemBase {
     PIDFController leftPid = new PIDFController(ShooterControlConfig.kP, ShooterControlConfig.kI, ShooterControlConfig.kD, 0.0);
     PIDFController rightPid = new PIDFController(ShooterControlConfig.kP, ShooterControlConfig.kI, ShooterControlConfig.kD, 0.0);
 
+    // Setpoint the controller tracks, follows targetVelocity within the acceleration limits when
+    // the profile is enabled
+    double profiledVelocity;
+    double profiledAcceleration;
+    private long lastProfileNanos;
+
+    private final ShotDetector shotDetector = new ShotDetector();
+    private final ReadyPredictor readyPredictor = new ReadyPredictor();
+
+    // Largest left/right velocity difference that still counts as ready
+    private static final double MAX_WHEEL_MISMATCH_TPS = 30;
+
     LimeLightAlign limelight;
 
     boolean isDemoMode = false;
 
-    public static final String[] LOG_COLUMNS = {
-            "ShooterReady", "IsShooting", "TargetTPS", "Tilt",
-            "RightTPS", "RightError", "RightPowerPID", "RightPowerFF", "RightPower",
-            "LeftTPS", "LeftError", "LeftPowerPID", "LeftPowerFF", "LeftPower",
-            "RSSI", "LinkSpeed"
-    };
+    // Published on the SignalBus every loop, the DataLoggerSink turns them into the ShooterLog columns
+    Signal shooterReadySignal, isShootingSignal;
+    Signal targetTpsSignal, tiltSignal;
+    Signal rightTpsSignal, rightErrorSignal, rightPowerPidSignal, rightPowerFfSignal, rightPowerSignal;
+    Signal leftTpsSignal, leftErrorSignal, leftPowerPidSignal, leftPowerFfSignal, leftPowerSignal;
+    Signal rssiSignal, linkSpeedSignal, wifiDropoutsSignal;
+    Signal shotDistanceSignal;
+    Signal profiledTpsSignal, shotDetectedSignal, shotCountSignal;
+    Signal timeToReadySignal, feedPredictedSignal, feedStartedSignal;
 
     public Shooter(HardwareMap hardwareMap, GamepadEx gamepad, Telemetry telemetry, RGBLightIndicator speedIndicator) {
         this(hardwareMap, gamepad, telemetry, speedIndicator, null, "Shooter");
@@ -126,10 +200,10 @@ public class Shooter extends SubsystemBase {
 
         this.speedIndicator = speedIndicator;
 
-        this.rightFlywheel = new MotorEx(hardwareMap, "RightFlywheel", Motor.GoBILDA.BARE);
-        this.leftFlywheel = new MotorEx(hardwareMap, "LeftFlywheel", Motor.GoBILDA.BARE);
+        this.rightFlywheel = new CachedMotorEx(hardwareMap, "RightFlywheel", Motor.GoBILDA.BARE);
+        this.leftFlywheel = new CachedMotorEx(hardwareMap, "LeftFlywheel", Motor.GoBILDA.BARE);
 
-        this.liftServo = hardwareMap.get(Servo.class,"LiftServo");
+        this.liftServo = new CachedServo(hardwareMap, "LiftServo");
 
         this.rightFlywheel.setRunMode(Motor.RunMode.RawPower);
         this.leftFlywheel.setRunMode(Motor.RunMode.RawPower);
@@ -142,39 +216,56 @@ public class Shooter extends SubsystemBase {
         speedIndicator.changeRed();
 
         wifiMonitor = new WifiMonitor();
+        wifiMonitor.start();
+        shotTable = loadShotTable();
+
+        SignalBus signals = SignalBus.get();
+        shooterReadySignal = signals.addBoolean("Shooter", "ShooterReady");
+        isShootingSignal = signals.addBoolean("Shooter", "IsShooting");
+        // Setpoints rarely change, record them only when they do
+        targetTpsSignal = signals.addDouble("Shooter", "TargetTPS").withLogPolicy(SamplingPolicy.onChange(0));
+        tiltSignal = signals.addDouble("Shooter", "Tilt").withLogPolicy(SamplingPolicy.onChange(0));
+        rightTpsSignal = signals.addDouble("Shooter", "RightTPS");
+        rightErrorSignal = signals.addDouble("Shooter", "RightError");
+        rightPowerPidSignal = signals.addDouble("Shooter", "RightPowerPID");
+        rightPowerFfSignal = signals.addDouble("Shooter", "RightPowerFF");
+        rightPowerSignal = signals.addDouble("Shooter", "RightPower");
+        leftTpsSignal = signals.addDouble("Shooter", "LeftTPS");
+        leftErrorSignal = signals.addDouble("Shooter", "LeftError");
+        leftPowerPidSignal = signals.addDouble("Shooter", "LeftPowerPID");
+        leftPowerFfSignal = signals.addDouble("Shooter", "LeftPowerFF");
+        leftPowerSignal = signals.addDouble("Shooter", "LeftPower");
+        // WiFi stats only update about once a second
+        rssiSignal = signals.addDouble("Shooter", "RSSI").withLogPolicy(SamplingPolicy.everyMs(1000));
+        linkSpeedSignal = signals.addDouble("Shooter", "LinkSpeed").withLogPolicy(SamplingPolicy.everyMs(1000));
+        wifiDropoutsSignal = signals.addDouble("Shooter", "WifiDropouts").withLogPolicy(SamplingPolicy.onChange(0));
+        shotDistanceSignal = signals.addDouble("Shooter", "ShotDistance").withLogPolicy(SamplingPolicy.onChange(0));
+        profiledTpsSignal = signals.addDouble("Shooter", "ProfiledTPS");
+        shotDetectedSignal = signals.addBoolean("Shooter", "ShotDetected");
+        shotCountSignal = signals.addDouble("Shooter", "ShotCount").withLogPolicy(SamplingPolicy.onChange(0));
+        timeToReadySignal = signals.addDouble("Shooter", "TimeToReadyMs");
+        feedPredictedSignal = signals.addBoolean("Shooter", "FeedPredicted");
+        feedStartedSignal = signals.addBoolean("Shooter", "FeedStarted");
 
         logger = new DataLogger(DataLogger.getLogFileName(opModeName, "ShooterLog"));
-        logger.initializeLogging(LOG_COLUMNS);
+        // Vision frame age and stale counters go along, to tell shots taken on old frames apart, and
+        // the battery voltage so the log analysis can fit voltage-normalized gains
+        SignalFilter shooterGroup = SignalFilter.group("Shooter");
+        SignalFilter batteryGroup = SignalFilter.group("Battery");
+        signals.addSink(new DataLoggerSink(logger, signals,
+                signal -> shooterGroup.accept(signal) || batteryGroup.accept(signal)
+                        || signal.getKey().startsWith(LimeLightAlign.FRAME_SIGNAL_PREFIX)));
+        logger.initializeLogging();
 
         // Log the PIDF constants at the start of the file
         logger.logComment("PIDF Config: kP=" + ShooterControlConfig.kP + " kI=" + ShooterControlConfig.kI + " kD=" + ShooterControlConfig.kD);
         logger.logComment("Feedforward Config: kS=" + ShooterControlConfig.ks + " kV_Left=" + ShooterControlConfig.kv_left + " kV_Right=" + ShooterControlConfig.kv_right + " kA=" + ShooterControlConfig.ka);
 
-        if(MainTeleop.Telemetry.Shooter) {
-            telemetry.addData("target velocity", this.targetVelocity);
-            telemetry.addData("target tilt", this.lastTilt);
-
-            telemetry.addData("right velocity", 0);
-            telemetry.addData("right error", 0);
-            telemetry.addData("right power (pid)", 0);
-            telemetry.addData("right power (ff)", 0);
-            telemetry.addData("current right power", 0);
-
-            telemetry.addData("left velocity", 0);
-            telemetry.addData("left error", 0);
-            telemetry.addData("left power (pid)", 0);
-            telemetry.addData("left power (ff)", 0);
-            telemetry.addData("current left power", 0);
-
-            telemetry.update();
-        }
-
         Log.i(LOG_TAG, "target velocity: " + this.targetVelocity);
         Log.i(LOG_TAG, "target tilt: " + this.lastTilt);
     }
 
     boolean wasLastColorGreen = false;
-    long counter = 0;
     double lastTilt = 0;
     boolean isShooting = false;
 
@@ -183,13 +274,23 @@ public class Shooter extends SubsystemBase {
     }
 
     @Override
-    public void periodic() {
-        super.periodic();
-
-        Log.i(LOG_TAG, "AutoSpeed = " + autoSpeed + ", counter = " + counter);
-        // Don't check limelight every time.
-        if(autoSpeed && counter++ == ShooterConfig.AutoSpeedCheckSkipCount) {
+    protected void doPeriodic() {
+        if (ShotTableConfig.Reload) {
+            ShotTableConfig.Reload = false;
+            shotTable = loadShotTable();
+        }
 
+        if (!Double.isNaN(shotDistanceOverride)) {
+            // The solver distance changes every loop while driving, and the lookup is cheap
+            shotTable.lookup(shotDistanceOverride, shot);
+            targetVelocity = shot.tps;
+            if (shot.tilt != lastTilt) {
+                liftServo.setPosition(shot.tilt + this.tiltDelta);
+                lastTilt = shot.tilt;
+            }
+            shotDistanceSignal.set(shotDistanceOverride);
+        } else if(autoSpeed && RateScheduler.get().isDue(RateGroup.VISION)) {
+            // Camera results only change at camera rate, GetAutoSpeed() only looks at new frames
             AutoSpeed expectedSpeed = GetAutoSpeed();
             targetVelocity = expectedSpeed.Tps;
 
@@ -198,12 +299,11 @@ public class Shooter extends SubsystemBase {
                 lastTilt = expectedSpeed.Tilt;
             }
 
-
-            counter = 0;
-        } else {
-            Log.i(LOG_TAG, "AutoSpeed is not used");
         }
 
+        long now = LoopClock.get().nanos();
+        updateProfile(now);
+
         double rightVelocity = rightFlywheel.getVelocity();
         double rightError = targetVelocity - rightVelocity;
 
@@ -212,7 +312,7 @@ public class Shooter extends SubsystemBase {
 
         if(Math.abs(rightError) < ShooterConfig.FlywheelAcceptableTpsError &&
                 Math.abs(leftError) < ShooterConfig.FlywheelAcceptableTpsError &&
-                Math.abs(leftVelocity - rightVelocity) < 30)
+                Math.abs(leftVelocity - rightVelocity) < MAX_WHEEL_MISMATCH_TPS)
         {
             if(!wasLastColorGreen) {
                 wasLastColorGreen = true;
@@ -225,15 +325,26 @@ public class Shooter extends SubsystemBase {
             }
         }
 
+        readyPredictor.update(now, targetVelocity, leftVelocity, rightVelocity,
+                ShooterConfig.FlywheelAcceptableTpsError, MAX_WHEEL_MISMATCH_TPS);
+
+        boolean shotDetected = shotDetector.update(now, profiledVelocity, leftVelocity, rightVelocity, wasLastColorGreen);
+        if (shotDetected) {
+            Log.i(LOG_TAG, "shot " + shotDetector.getShotCount() + " detected, left " + leftVelocity + " right " + rightVelocity + " target " + targetVelocity);
+        }
+
         // --- Compute feedback + feedforward ---
         // PIDFController works in "measurement, setpoint" order
-        double leftPidPower = leftPid.calculate(leftVelocity, targetVelocity);
-        double rightPidPower = rightPid.calculate(rightVelocity, targetVelocity);
+        double leftPidPower = leftPid.calculate(leftVelocity, profiledVelocity);
+        double rightPidPower = rightPid.calculate(rightVelocity, profiledVelocity);
 
 
-        // For a shooter, we usually assume accel ~ 0 in steady state
-        double leftFeedforwardValue = leftFeedforward.calculate(targetVelocity);
-        double rightFeedforwardValue = rightFeedforward.calculate(targetVelocity);
+        // Acceleration is 0 without the profile, a stepped setpoint has none to feed forward.
+        // Scaled so the same target gets the same motor voltage on a full and a tired battery (1
+        // while compensation is off)
+        double compensation = BatteryVoltage.get().getCompensation();
+        double leftFeedforwardValue = leftFeedforward.calculate(profiledVelocity, profiledAcceleration) * compensation;
+        double rightFeedforwardValue = rightFeedforward.calculate(profiledVelocity, profiledAcceleration) * compensation;
 
         // Total output to motors (you tune k's so this ends up in [-1, 1])
         double leftPower = leftFeedforwardValue + leftPidPower;
@@ -248,30 +359,32 @@ public class Shooter extends SubsystemBase {
             leftFlywheel.set(leftPower);
         }
 
-        logger.log(wasLastColorGreen ? 1 : 0, isShooting ? 1 : 0, targetVelocity, lastTilt, rightVelocity, rightError, rightPidPower, rightFeedforwardValue, rightPower, leftVelocity, leftError, leftPidPower, leftFeedforwardValue, leftPower, wifiMonitor.getSignalStrength(), wifiMonitor.getLinkSpeed());
+        shooterReadySignal.set(wasLastColorGreen);
+        isShootingSignal.set(isShooting);
+        targetTpsSignal.set(targetVelocity);
+        tiltSignal.set(lastTilt);
+        rightTpsSignal.set(rightVelocity);
+        rightErrorSignal.set(rightError);
+        rightPowerPidSignal.set(rightPidPower);
+        rightPowerFfSignal.set(rightFeedforwardValue);
+        rightPowerSignal.set(rightPower);
+        leftTpsSignal.set(leftVelocity);
+        leftErrorSignal.set(leftError);
+        leftPowerPidSignal.set(leftPidPower);
+        leftPowerFfSignal.set(leftFeedforwardValue);
+        leftPowerSignal.set(leftPower);
+        profiledTpsSignal.set(profiledVelocity);
+        shotDetectedSignal.set(shotDetected);
+        shotCountSignal.set(shotDetector.getShotCount());
+        double timeToReadyMs = readyPredictor.getTimeToReadyMs();
+        timeToReadySignal.set(Double.isInfinite(timeToReadyMs) ? Double.NaN : timeToReadyMs);
+        feedPredictedSignal.set(!wasLastColorGreen && readyPredictor.isReadyWithinFeedLead());
+        // Set by recordFeedStart() from the commands, which run after this in the same loop
+        feedStartedSignal.set(false);
+        rssiSignal.set(wifiMonitor.getSignalStrength());
+        linkSpeedSignal.set(wifiMonitor.getLinkSpeed());
+        wifiDropoutsSignal.set(wifiMonitor.getDropouts());
         isShooting = false;
-
-        if(MainTeleop.Telemetry.Shooter) {
-            telemetry.addData("target velocity", this.targetVelocity);
-            telemetry.addData("tilt", this.lastTilt);
-
-            telemetry.addData("right velocity", rightVelocity);
-            telemetry.addData("right error", rightError);
-            telemetry.addData("right power (pid)", rightPidPower);
-            telemetry.addData("right power (ff)", rightFeedforwardValue);
-            telemetry.addData("current right power", rightPower);
-
-            telemetry.addData("left velocity", leftVelocity);
-            telemetry.addData("left error", leftError);
-            telemetry.addData("left power (pid)", leftPidPower);
-            telemetry.addData("left power (ff)", leftFeedforwardValue);
-            telemetry.addData("current left power", leftPower);
-
-            telemetry.update();
-        }
-
-        Log.i(LOG_TAG, "target velocity: " + this.targetVelocity);
-        Log.i(LOG_TAG, "tilt: " + this.lastTilt);
     }
 
     public class AutoSpeed {
@@ -285,101 +398,77 @@ public class Shooter extends SubsystemBase {
 
         public double Tilt;
         public boolean isDefault() {
-            return Tps == 695 && Tilt == 0.9;
+            return Tps == DEFAULT_AUTO_TPS && Tilt == DEFAULT_AUTO_TILT;
         }
     }
 
+    /**
+     * Speed and tilt for the goal distance the camera currently sees. Returns the same object on
+     * every call; only a new camera frame changes it. While the tag is not visible it keeps the last
+     * shot, for up to {@link ShooterConfig#AutoSpeedHoldMs} when that is set.
+     */
     public AutoSpeed GetAutoSpeed() {
-        AutoSpeed result = new AutoSpeed(695, 0.9);
         if (this.limelight == null) {
-            Log.i(LOG_TAG, "No limelight");
-            if (lastKnownNonDefault != null) {
-                Log.i(LOG_TAG, "Using last known non-default: Tps = " + lastKnownNonDefault.Tps + ", tilt = " + lastKnownNonDefault.Tilt);
-                return lastKnownNonDefault;
-            }
-            return result;
+            return autoSpeedResult;
         }
-        AprilTagPosition position = this.limelight.getAprilTagPosition();
-
-
-        if(position != null) {
-            double distance = position.distance();
-
-            //y = 0.0101722*x^2 - 0.0456217*x + 672.12131
-//            double tps = 0.0101722 * distance * distance - 0.0456217 * distance + 700; //672.12131;
-//            double tilt = getTilt(distance);
-            result = this.GetAutoSpeed(distance);
-            lastKnownNonDefault = result;
-        } else {
-            if (lastKnownNonDefault != null) {
-                Log.i(LOG_TAG, "Using last known non-default: Tps = " + lastKnownNonDefault.Tps + ", tilt = " + lastKnownNonDefault.Tilt);
-                return lastKnownNonDefault;
+        long now = System.nanoTime();
+        if (this.limelight.hasNewFrameSince(autoSpeedFrameId)) {
+            autoSpeedFrameId = this.limelight.getFrameId();
+            AprilTagPosition position = this.limelight.getAprilTagPosition();
+            if(position != null) {
+                double distance = position.distance();
+                shotTable.lookup(distance, shot);
+                autoSpeedResult.Tps = shot.tps;
+                autoSpeedResult.Tilt = shot.tilt;
+                autoSpeedSeenNanos = now;
+                shotDistanceSignal.set(distance);
+                return autoSpeedResult;
             }
         }
+        if (ShooterConfig.AutoSpeedHoldMs > 0 && autoSpeedSeenNanos != 0
+                && (now - autoSpeedSeenNanos) / 1.0E6 > ShooterConfig.AutoSpeedHoldMs) {
+            autoSpeedResult.Tps = DEFAULT_AUTO_TPS;
+            autoSpeedResult.Tilt = DEFAULT_AUTO_TILT;
+            autoSpeedSeenNanos = 0;
+        }
+        return autoSpeedResult;
+    }
 
-        Log.i(LOG_TAG, "AutoSpeed: tps = " + result.Tps + ", tile: " + result.Tilt);
-        return result;
+    /**
+     * Moves profiledVelocity towards targetVelocity. Without the profile it is the target, as
+     * before; with it the setpoint ramps at the configured acceleration.
+     */
+    private void updateProfile(long now) {
+        double dt = lastProfileNanos == 0 ? 0 : (now - lastProfileNanos) / 1.0E9;
+        lastProfileNanos = now;
+        if (!ShooterControlConfig.ProfileEnabled || dt <= 0) {
+            profiledVelocity = ShooterControlConfig.ProfileEnabled ? profiledVelocity : targetVelocity;
+            profiledAcceleration = 0;
+            return;
+        }
+        double error = targetVelocity - profiledVelocity;
+        // Spinning up away from 0 accelerates, towards 0 decelerates
+        double limit = Math.abs(targetVelocity) > Math.abs(profiledVelocity)
+                ? ShooterControlConfig.MaxAccelTpsPerSecond : ShooterControlConfig.MaxDecelTpsPerSecond;
+        double step = clamp(error, -limit * dt, limit * dt);
+        profiledVelocity += step;
+        profiledAcceleration = step / dt;
     }
 
-    private AutoSpeed GetAutoSpeed(double distance) {
-        Log.i(LOG_TAG, "input distance for GetAutoSpeed = " + distance);
-        if(!isDemoMode) {
-            /*
-            44 - 730, 0.95
-            54 - 710, 0.95
-            64 - 720, 0.95
-            74 - 740, 0.95
-            84 - 740, 0.95
-            94 - 760, 0.95
-            114 - 810, 0.95
-            124 - 825, 0.95
-            134 - 845, 0.95
-            */
-            if (distance < 44) {
-                return new AutoSpeed(730, 0.95);
-            } else if (distance < 54) {
-                return new AutoSpeed(710, 0.95);
-            } else if (distance < 64) {
-                return new AutoSpeed(720, 0.95); // for auto short
-            } else if (distance < 74) {
-                return new AutoSpeed(740, 0.95);
-            } else if (distance < 84) {
-                return new AutoSpeed(740, 0.95);
-            } else if (distance < 94) {
-                return new AutoSpeed(760, 0.95);
-            } else if (distance < 114) {
-                return new AutoSpeed(810, 0.95);
-            } else if (distance < 124) {
-                return new AutoSpeed(825, 0.95);
-            } else if (distance < 134) {
-                return new AutoSpeed(845, 0.95);
-            } else {
-                return new AutoSpeed(720, 0.95);
-            }
-        } else {
-            // Exaggerated tilt to help in demos
-            if (distance < 44) {
-                return new AutoSpeed( 695, 0.95);
-            } else if (distance < 54) {
-                return new AutoSpeed( 695, 0.85);
-            } else if (distance < 64) {
-                return new AutoSpeed( 695, 0.75);
-            } else if (distance < 74) {
-                return new AutoSpeed( 695, 0.65);
-            } else if (distance < 84) {
-                return new AutoSpeed( 695, 0.55);
-            } else if (distance < 94) {
-                return new AutoSpeed( 695, 0.45);
-            } else if (distance < 114) {
-                return new AutoSpeed( 695, 0.45);
-            } else if (distance < 124) {
-                return new AutoSpeed( 695, 0.45);
-            } else if (distance < 134) {
-                return new AutoSpeed( 695, 0.45);
-            } else {
-                return new AutoSpeed( 695, 0.85);
+    private ShotTable loadShotTable() {
+        ShotTable fallback = isDemoMode ? DEMO_SHOT_TABLE : DEFAULT_SHOT_TABLE;
+        File file = new File(Environment.getExternalStorageDirectory(),
+                "FIRST/" + (isDemoMode ? ShotTableConfig.DemoFileName : ShotTableConfig.FileName));
+        if (!file.exists()) {
+            try {
+                // Gives the drive team a file to edit
+                fallback.write(file);
+            } catch (IOException e) {
+                Log.w(LOG_TAG, "Could not write " + file, e);
             }
+            return fallback;
         }
+        return ShotTable.load(file, fallback);
     }
 
     private double clamp(double value, double min, double max) {
@@ -437,10 +526,49 @@ public class Shooter extends SubsystemBase {
 
     }
 
+    /**
+     * Takes speed and tilt from the shot table at the given distance every loop, instead of from
+     * the camera, until {@link #clearShotDistance()}.
+     */
+    public void setShotDistance(double distance) {
+        this.shotDistanceOverride = distance;
+    }
+
+    public void clearShotDistance() {
+        this.shotDistanceOverride = Double.NaN;
+    }
+
     public boolean isReadyToShoot() {
         return wasLastColorGreen;
     }
 
+    /**
+     * Whether a ball fed now arrives at wheels that are ready: they are ready already, or, with
+     * {@link ReadyPredictor.ReadyPredictorConfig#Enabled}, they are predicted to be within the feed
+     * lead time.
+     */
+    public boolean isReadyToFeed() {
+        return wasLastColorGreen
+                || ReadyPredictor.ReadyPredictorConfig.Enabled && readyPredictor.isReadyWithinFeedLead();
+    }
+
+    /**
+     * Logs that the feed is starting now, with whether the wheels were ready or only predicted to
+     * be. Next to the ShotDetected column this shows whether predicted feeds hit.
+     */
+    public void recordFeedStart() {
+        feedStartedSignal.set(true);
+        Log.i(LOG_TAG, "feed started, ready " + wasLastColorGreen
+                + ", predicted ready in " + readyPredictor.getTimeToReadyMs() + " ms"
+                + ", lead " + ReadyPredictor.ReadyPredictorConfig.FeedLeadMs + " ms"
+                + ", target " + targetVelocity);
+    }
+
+    /** Balls detected leaving the shooter since it was created. */
+    public int getShotCount() {
+        return shotDetector.getShotCount();
+    }
+
     boolean autoSpeed = true;
 
     public void AutoSpeedAndTilt() {
@@ -0,0 +1,129 @@
+package org.firstinspires.ftc.teamcode.subsystems.scoring;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.bylazar.configurables.annotations.Configurable;
+
+/**
+ * Counts balls leaving the shooter from the flywheel velocities. A ball squeezed between the
+ * wheels slows both of them by tens of TPS within a few loops; the same drop on only one wheel, or
+ * on both but far apart in time, is noise or a rub.
+ *
+ * Each wheel tracks its peak velocity while armed and dips when it falls DipTps below it. Once
+ * both wheels dipped within CoincidenceMs a shot is counted, and each wheel rearms when it has
+ * recovered RearmTps above its lowest velocity since, so a ball fed before the wheels are fully
+ * back at speed is still counted.
+ *
+ * Detection restarts whenever the setpoint moves and waits for the wheels to reach it; slowing
+ * down to a lower setpoint would otherwise look like a dip.
+ */
+public final class ShotDetector {
+
+    @Config
+    @Configurable
+    public static class ShotDetectorConfig {
+        public static double DipTps = 60;
+
+        public static double RearmTps = 20;
+
+        public static double CoincidenceMs = 80;
+
+        // Two balls can't pass the wheels faster than this
+        public static double MinShotIntervalMs = 120;
+
+        // Smaller setpoint changes, e.g. auto speed following the goal distance, keep detection running
+        public static double SetpointChangeTps = 15;
+    }
+
+    private final Wheel left = new Wheel();
+    private final Wheel right = new Wheel();
+    private boolean enabled;
+    private double armedSetpoint = Double.NaN;
+    private long lastShotNanos = Long.MIN_VALUE;
+    private int shotCount;
+
+    /**
+     * Feeds one loop. Returns true on the loop a shot is detected.
+     *
+     * @param setpoint velocity the flywheels are controlled to
+     * @param atSpeed  both flywheels are within tolerance of the setpoint. Detection starts the
+     *                 first time this is true after the setpoint moved, and then keeps running
+     *                 while the wheels dip and recover
+     */
+    public boolean update(long nowNanos, double setpoint, double leftVelocity, double rightVelocity, boolean atSpeed) {
+        if (!(Math.abs(setpoint - armedSetpoint) <= ShotDetectorConfig.SetpointChangeTps)) {
+            armedSetpoint = setpoint;
+            enabled = false;
+        }
+        if (!enabled) {
+            if (!atSpeed) {
+                return false;
+            }
+            enabled = true;
+            left.restart(leftVelocity);
+            right.restart(rightVelocity);
+        }
+
+        left.update(nowNanos, leftVelocity);
+        right.update(nowNanos, rightVelocity);
+
+        if (left.dipNanos == Long.MIN_VALUE || right.dipNanos == Long.MIN_VALUE) {
+            // A dip on one wheel only is forgotten once its partner can no longer match it
+            left.expire(nowNanos);
+            right.expire(nowNanos);
+            return false;
+        }
+
+        boolean coincident = Math.abs(left.dipNanos - right.dipNanos) / 1.0E6 <= ShotDetectorConfig.CoincidenceMs;
+        boolean spaced = lastShotNanos == Long.MIN_VALUE
+                || (nowNanos - lastShotNanos) / 1.0E6 >= ShotDetectorConfig.MinShotIntervalMs;
+        left.dipNanos = Long.MIN_VALUE;
+        right.dipNanos = Long.MIN_VALUE;
+        if (!coincident || !spaced) {
+            return false;
+        }
+        lastShotNanos = nowNanos;
+        shotCount++;
+        return true;
+    }
+
+    /** Shots detected since construction, callers count from their own starting value. */
+    public int getShotCount() {
+        return shotCount;
+    }
+
+    private static final class Wheel {
+        double peak;
+        double trough;
+        boolean dipped;
+        // When the current dip started, MIN_VALUE when it was used or expired
+        long dipNanos = Long.MIN_VALUE;
+
+        void restart(double velocity) {
+            peak = velocity;
+            dipped = false;
+            dipNanos = Long.MIN_VALUE;
+        }
+
+        void update(long nowNanos, double velocity) {
+            if (dipped) {
+                trough = Math.min(trough, velocity);
+                if (velocity - trough >= ShotDetectorConfig.RearmTps) {
+                    restart(velocity);
+                }
+                return;
+            }
+            peak = Math.max(peak, velocity);
+            if (peak - velocity >= ShotDetectorConfig.DipTps) {
+                dipped = true;
+                trough = velocity;
+                dipNanos = nowNanos;
+            }
+        }
+
+        void expire(long nowNanos) {
+            if (dipNanos != Long.MIN_VALUE && (nowNanos - dipNanos) / 1.0E6 > ShotDetectorConfig.CoincidenceMs) {
+                dipNanos = Long.MIN_VALUE;
+            }
+        }
+    }
+}
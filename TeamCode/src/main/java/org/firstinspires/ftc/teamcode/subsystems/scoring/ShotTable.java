@@ -0,0 +1,201 @@
+package org.firstinspires.ftc.teamcode.subsystems.scoring;
+
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Distance to goal (inches) to flywheel TPS and tilt servo position. The measured points are
+ * joined with monotone cubic (Fritsch-Carlson) interpolation, which never overshoots between
+ * points, so the TPS moves smoothly with distance instead of jumping at bin edges.
+ *
+ * The curve is sampled onto a fixed grid when the table is built; {@link #lookup} is then an
+ * index computation and one linear blend, constant time and allocation free. Distances outside
+ * the measured range use the nearest end point.
+ *
+ * Tables are CSV files ("distance,tps,tilt" per line, '#' starts a comment) so they can be
+ * re-tuned on the robot without a rebuild.
+ */
+public final class ShotTable {
+
+    private static final String LOG_TAG = ShotTable.class.getSimpleName();
+
+    private static final double GRID_STEP_INCHES = 0.5;
+
+    /** Reusable lookup result. */
+    public static final class Shot {
+        public double tps;
+        public double tilt;
+    }
+
+    private final double[] distances;
+    private final double[] tps;
+    private final double[] tilt;
+
+    private final double gridStart;
+    private final double[] gridTps;
+    private final double[] gridTilt;
+
+    /**
+     * @param distances strictly increasing, at least two points
+     */
+    public ShotTable(double[] distances, double[] tps, double[] tilt) {
+        if (distances.length < 2 || tps.length != distances.length || tilt.length != distances.length) {
+            throw new IllegalArgumentException("Shot table needs at least two points with distance, tps and tilt");
+        }
+        for (int i = 1; i < distances.length; i++) {
+            if (distances[i] <= distances[i - 1]) {
+                throw new IllegalArgumentException("Shot table distances must be increasing: " + distances[i - 1] + ", " + distances[i]);
+            }
+        }
+        this.distances = distances.clone();
+        this.tps = tps.clone();
+        this.tilt = tilt.clone();
+
+        gridStart = distances[0];
+        int cells = (int) Math.ceil((distances[distances.length - 1] - gridStart) / GRID_STEP_INCHES);
+        gridTps = sample(this.distances, this.tps, gridStart, cells + 1);
+        gridTilt = sample(this.distances, this.tilt, gridStart, cells + 1);
+    }
+
+    public void lookup(double distance, Shot out) {
+        double position = (distance - gridStart) / GRID_STEP_INCHES;
+        int last = gridTps.length - 1;
+        if (!(position > 0)) {
+            // Also catches NaN
+            out.tps = gridTps[0];
+            out.tilt = gridTilt[0];
+            return;
+        }
+        if (position >= last) {
+            out.tps = gridTps[last];
+            out.tilt = gridTilt[last];
+            return;
+        }
+        int index = (int) position;
+        double t = position - index;
+        out.tps = gridTps[index] + (gridTps[index + 1] - gridTps[index]) * t;
+        out.tilt = gridTilt[index] + (gridTilt[index + 1] - gridTilt[index]) * t;
+    }
+
+    public int size() {
+        return distances.length;
+    }
+
+    /**
+     * Reads a table from a CSV file, or returns the fallback when the file is missing or invalid.
+     */
+    public static ShotTable load(File file, ShotTable fallback) {
+        if (!file.exists()) {
+            Log.i(LOG_TAG, file + " not found, using the built-in table");
+            return fallback;
+        }
+        List<double[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int comment = line.indexOf('#');
+                if (comment >= 0) {
+                    line = line.substring(0, comment);
+                }
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length < 3) {
+                    throw new IOException("Expected distance,tps,tilt but got: " + line);
+                }
+                rows.add(new double[]{
+                        Double.parseDouble(parts[0].trim()),
+                        Double.parseDouble(parts[1].trim()),
+                        Double.parseDouble(parts[2].trim())});
+            }
+
+            double[] d = new double[rows.size()];
+            double[] v = new double[rows.size()];
+            double[] t = new double[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                d[i] = rows.get(i)[0];
+                v[i] = rows.get(i)[1];
+                t[i] = rows.get(i)[2];
+            }
+            ShotTable table = new ShotTable(d, v, t);
+            Log.i(LOG_TAG, "Loaded " + table.size() + " points from " + file);
+            return table;
+        } catch (IOException | RuntimeException e) {
+            Log.w(LOG_TAG, "Failed to load " + file + ", using the built-in table", e);
+            return fallback;
+        }
+    }
+
+    public void write(File file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("# distance (in), flywheel tps, tilt servo position");
+            for (int i = 0; i < distances.length; i++) {
+                writer.println(String.format(Locale.US, "%.1f,%.1f,%.3f", distances[i], tps[i], tilt[i]));
+            }
+        }
+    }
+
+    /** Samples the monotone cubic through (x, y) at count points spaced GRID_STEP_INCHES apart. */
+    private static double[] sample(double[] x, double[] y, double start, int count) {
+        double[] slopes = monotoneSlopes(x, y);
+        double[] grid = new double[count];
+        int segment = 0;
+        for (int i = 0; i < count; i++) {
+            double at = Math.min(start + i * GRID_STEP_INCHES, x[x.length - 1]);
+            while (segment < x.length - 2 && at > x[segment + 1]) {
+                segment++;
+            }
+            double h = x[segment + 1] - x[segment];
+            double t = (at - x[segment]) / h;
+            double t2 = t * t;
+            double t3 = t2 * t;
+            grid[i] = (2 * t3 - 3 * t2 + 1) * y[segment]
+                    + (t3 - 2 * t2 + t) * h * slopes[segment]
+                    + (-2 * t3 + 3 * t2) * y[segment + 1]
+                    + (t3 - t2) * h * slopes[segment + 1];
+        }
+        return grid;
+    }
+
+    /** Fritsch-Carlson tangents: zero at local extrema, limited elsewhere so no segment overshoots. */
+    private static double[] monotoneSlopes(double[] x, double[] y) {
+        int n = x.length;
+        double[] secants = new double[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            secants[i] = (y[i + 1] - y[i]) / (x[i + 1] - x[i]);
+        }
+        double[] slopes = new double[n];
+        slopes[0] = secants[0];
+        slopes[n - 1] = secants[n - 2];
+        for (int i = 1; i < n - 1; i++) {
+            slopes[i] = secants[i - 1] * secants[i] <= 0 ? 0 : (secants[i - 1] + secants[i]) / 2;
+        }
+        for (int i = 0; i < n - 1; i++) {
+            if (secants[i] == 0) {
+                slopes[i] = 0;
+                slopes[i + 1] = 0;
+                continue;
+            }
+            double a = slopes[i] / secants[i];
+            double b = slopes[i + 1] / secants[i];
+            double length = a * a + b * b;
+            if (length > 9) {
+                double tau = 3 / Math.sqrt(length);
+                slopes[i] = tau * a * secants[i];
+                slopes[i + 1] = tau * b * secants[i];
+            }
+        }
+        return slopes;
+    }
+}
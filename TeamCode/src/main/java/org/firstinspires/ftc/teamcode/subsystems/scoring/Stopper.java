@@ -1,31 +1,35 @@
 package org.firstinspires.ftc.teamcode.subsystems.scoring;
 
-import com.arcrobotics.ftclib.command.SubsystemBase;
 import com.arcrobotics.ftclib.gamepad.GamepadEx;
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.Servo;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.hardware.CachedServo;
+import org.firstinspires.ftc.teamcode.subsystems.RateScheduler.RateGroup;
+import org.firstinspires.ftc.teamcode.subsystems.SounderBotSubsystemBase;
 
-public class Stopper extends SubsystemBase {
+public class Stopper extends SounderBotSubsystemBase {
 
     Telemetry telemetry;
 
     GamepadEx gamepad;
 
-    Servo stopper;
+    CachedServo stopper;
 
     public Stopper(HardwareMap hardwareMap, GamepadEx gamepad, Telemetry telemetry) {
         this.gamepad = gamepad;
         this.telemetry = telemetry;
 
-        this.stopper = hardwareMap.get(Servo.class,"Stopper");
+        this.stopper = new CachedServo(hardwareMap, "Stopper");
     }
 
     @Override
-    public void periodic() {
-        super.periodic();
+    protected RateGroup getRateGroup() {
+        return RateGroup.UI;
+    }
 
+    @Override
+    protected void doPeriodic() {
     }
     public void Stop() {
         stopper.setPosition(0.875);
@@ -2,10 +2,8 @@ package org.firstinspires.ftc.teamcode.subsystems.scoring;
 
 import android.util.Log;
 
-import com.arcrobotics.ftclib.command.SubsystemBase;
 import com.arcrobotics.ftclib.gamepad.GamepadEx;
 import com.arcrobotics.ftclib.gamepad.GamepadKeys;
-import com.arcrobotics.ftclib.hardware.motors.Motor;
 import com.qualcomm.robotcore.hardware.CRServo;
 import com.qualcomm.robotcore.hardware.DistanceSensor;
 import com.qualcomm.robotcore.hardware.HardwareMap;
@@ -13,34 +11,42 @@ import com.qualcomm.robotcore.hardware.Servo;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
 import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.teamcode.hardware.CachedMotor;
 import org.firstinspires.ftc.teamcode.opmodes.teleop.MainTeleop;
+import org.firstinspires.ftc.teamcode.signals.Signal;
+import org.firstinspires.ftc.teamcode.signals.SignalBus;
+import org.firstinspires.ftc.teamcode.subsystems.SounderBotSubsystemBase;
 
-public class TransferChamber extends SubsystemBase {
+public class TransferChamber extends SounderBotSubsystemBase {
 
     Telemetry telemetry;
 
     GamepadEx gamepad;
 
-    Motor chamberMotor;
+    CachedMotor chamberMotor;
 
     protected DistanceSensor highArtifactSensor, frontArtifactSensor;
 
     Servo rightLauncher, leftLauncher, feeder;
 
+    Signal frontSensorSignal, frontDetectedSignal, artifactCountSignal;
 
     public TransferChamber(HardwareMap hardwareMap, GamepadEx gamepad, Telemetry telemetry) {
         this.gamepad = gamepad;
         this.telemetry = telemetry;
 
-        this.chamberMotor = new Motor(hardwareMap, "Intake");
+        this.chamberMotor = new CachedMotor(hardwareMap, "Intake");
 
         frontArtifactSensor = hardwareMap.get(DistanceSensor.class, "FrontSensor");
+
+        SignalBus signals = SignalBus.get();
+        frontSensorSignal = signals.addDouble("Transfer", "FrontSensorMM");
+        frontDetectedSignal = signals.addBoolean("Transfer", "FrontDetected");
+        artifactCountSignal = signals.addDouble("Transfer", "ArtifactCount");
     }
 
     @Override
-    public void periodic() {
-        super.periodic();
-
+    protected void doPeriodic() {
         if(!(gamepad.isDown(GamepadKeys.Button.A) || gamepad.isDown(GamepadKeys.Button.B))) {
             if (Math.abs(gamepad.getLeftY()) > .2) {
                 chamberMotor.set(-1 * gamepad.getLeftY() * Shooter.ShooterConfig.IntakeMaxPower);
@@ -49,17 +55,12 @@ public class TransferChamber extends SubsystemBase {
             }
         }
 
-        boolean addTelemetry = false;
-        if(addTelemetry) {
-            telemetry.addData("high Sensor", GetArtifactSensorReading());
-            telemetry.addData("is ball detected on high side", IsArtifactDetected());
-
-            telemetry.addData("front Sensor", GetFrontSensorReading());
-            telemetry.addData("is ball detected on front", IsFrontArtifactDetected());
-
-            telemetry.addData("ball count", artifactCount);
-
-            telemetry.update();
+        artifactCountSignal.set(artifactCount);
+        // The distance sensor is an extra I2C read, only pay for it when someone is watching
+        if(MainTeleop.Telemetry.Transfer) {
+            double frontDistance = GetFrontSensorReading();
+            frontSensorSignal.set(frontDistance);
+            frontDetectedSignal.set(frontDistance < 140);
         }
     }
 
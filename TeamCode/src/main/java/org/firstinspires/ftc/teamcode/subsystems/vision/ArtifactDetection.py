@@ -26,7 +26,11 @@ colors = [("green", lower_green, upper_green), ("purple", lower_purple, upper_pu
 
 
 # runPipeline() is called every frame by Limelight's backend.
+# llpython layout, read by ArtifactSnapshot.java:
+# [green found, green x, green y, purple found, purple x, purple y, line angle in degrees]
 def runPipeline(frame, llrobot):
+  llpython = [0, 0, 0, 0, 0, 0, 0]
+
   # Blur the image
   blurred = cv2.GaussianBlur(frame, (21, 21), sigmaX=10, sigmaY=10)
   # Convert to HSV color space
@@ -58,11 +62,13 @@ def runPipeline(frame, llrobot):
           green_center = center
           green_centerY = int(M["m01"] / M["m00"])
           green_centerX = int(M["m10"] / M["m00"])
+          llpython[0:3] = [1, green_centerX, green_centerY]
           #print(f"green center: {green_center}")
         if color == "purple":
           purple_center = center
           purple_centerY = int(M["m01"] / M["m00"])
           purple_centerX = int(M["m10"] / M["m00"])
+          llpython[3:6] = [1, purple_centerX, purple_centerY]
           #print(f"purple center: {purple_center}")
         # Only proceed if the radius meets a minimum size
         if radius > 10: # Adjust minimum radius as needed
@@ -80,4 +86,5 @@ def runPipeline(frame, llrobot):
     angle_radians = math.atan(slope)
     angle_degrees = math.degrees(angle_radians)
     print(f"angle: {angle_degrees}")
-  return [[]], frame, []
+    llpython[6] = angle_degrees
+  return [[]], frame, llpython
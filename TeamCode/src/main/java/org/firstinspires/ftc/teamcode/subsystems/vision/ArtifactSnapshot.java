@@ -0,0 +1,32 @@
+package org.firstinspires.ftc.teamcode.subsystems.vision;
+
+/**
+ * Output of ArtifactDetection.py for one frame: the image-space centers of the largest green and
+ * purple blobs and the angle of the line through them. Coordinates are in pixels.
+ *
+ * @param captureNanos System.nanoTime() at which the camera captured the frame (latency removed)
+ */
+public record ArtifactSnapshot(
+        boolean greenFound,
+        double greenX,
+        double greenY,
+        boolean purpleFound,
+        double purpleX,
+        double purpleY,
+        double lineAngleDegrees,
+        long captureNanos) {
+
+    // Layout of the llpython array written by ArtifactDetection.py
+    static final int OUTPUT_LENGTH = 7;
+
+    static ArtifactSnapshot fromPythonOutput(double[] output, long captureNanos) {
+        if (output == null || output.length < OUTPUT_LENGTH) {
+            return null;
+        }
+        return new ArtifactSnapshot(output[0] != 0, output[1], output[2], output[3] != 0, output[4], output[5], output[6], captureNanos);
+    }
+
+    public double getAgeMs(long nowNanos) {
+        return (nowNanos - captureNanos) / 1.0E6;
+    }
+}
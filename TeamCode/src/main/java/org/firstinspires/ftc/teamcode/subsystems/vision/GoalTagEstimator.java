@@ -0,0 +1,207 @@
+package org.firstinspires.ftc.teamcode.subsystems.vision;
+
+import static com.qualcomm.hardware.limelightvision.LLResultTypes.FiducialResult;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.bylazar.configurables.annotations.Configurable;
+
+import org.firstinspires.ftc.robotcore.external.navigation.Position;
+import org.firstinspires.ftc.teamcode.command.CommonConstants;
+import org.firstinspires.ftc.teamcode.common.AprilTagEnum;
+import org.firstinspires.ftc.teamcode.common.AprilTagPosition;
+
+import java.util.List;
+
+/**
+ * Filtered goal distance and bearing from every goal tag detection in a frame. Each detection is
+ * weighted by tag area and distance (small, far tags have the noisiest pose solutions); the goal
+ * that was tracked last stays the target while it is visible, otherwise the best weighted goal tag
+ * is picked. Detections of the target are averaged by weight.
+ *
+ * Frames whose distance or bearing jumps further from the estimate than the robot can move are
+ * rejected. A few rejections in a row mean the estimate itself is wrong (the robot was bumped, or
+ * the target changed sides), and the estimate restarts from the new measurement.
+ *
+ * Confidence (0..1) follows the measurement weight, discounted by how far each measurement was
+ * from the estimate. Only used from the {@link LimelightPoller} thread.
+ */
+public final class GoalTagEstimator {
+
+    @Config
+    @Configurable
+    public static class GoalEstimatorConfig {
+        // Tag area (percent of the image) at which a detection gets half its area weight
+        public static double HalfWeightArea = 0.1;
+
+        // Distance weight halves at this distance
+        public static double DistanceScaleInches = 120;
+
+        public static double MaxJumpInches = 12;
+
+        public static double MaxJumpDegrees = 5;
+
+        public static double MaxTurnRateDegreesPerSecond = 270;
+
+        public static int ReacquireFrames = 3;
+
+        // The estimate is restarted instead of filtered when the last accepted frame is older
+        public static double ResetAfterMs = 500;
+
+        // Share of the distance innovation applied for a full-weight detection. Bearing is not
+        // filtered, aiming already handles camera latency and needs the newest value
+        public static double DistanceGain = 0.6;
+
+        public static double ConfidenceSmoothing = 0.5;
+    }
+
+    private AprilTagEnum target;
+    private double distance;
+    private double lastHorizontal;
+    private double confidence;
+    private long lastAcceptedNanos = Long.MIN_VALUE;
+    private int consecutiveRejects;
+    private int rejectedFrames;
+
+    // Weighted measurement of the current frame
+    private double measuredDistance, measuredX, measuredY, measuredZ, measuredHorizontal, measuredVertical, measuredWeight;
+
+    /**
+     * Folds one frame in. Returns the goal estimate, or null when the frame has no goal tag or was
+     * rejected.
+     */
+    public AprilTagPosition update(List<FiducialResult> fiducials, long captureNanos) {
+        boolean expired = lastAcceptedNanos == Long.MIN_VALUE
+                || (captureNanos - lastAcceptedNanos) / 1.0E6 > GoalEstimatorConfig.ResetAfterMs;
+        AprilTagEnum frameTarget = selectTarget(fiducials, expired ? null : target);
+        if (frameTarget == null) {
+            return null;
+        }
+        measure(fiducials, frameTarget);
+
+        if (expired || frameTarget != target) {
+            restart(frameTarget, captureNanos);
+            return estimate();
+        }
+
+        double innovation = Math.abs(measuredDistance - distance);
+        // The robot may turn quickly between frames but not teleport, bearing gets more room the
+        // longer ago the last accepted frame was
+        double allowedTurn = GoalEstimatorConfig.MaxJumpDegrees
+                + GoalEstimatorConfig.MaxTurnRateDegreesPerSecond * (captureNanos - lastAcceptedNanos) / 1.0E9;
+        if (innovation > GoalEstimatorConfig.MaxJumpInches || Math.abs(measuredHorizontal - lastHorizontal) > allowedTurn) {
+            confidence *= 1 - GoalEstimatorConfig.ConfidenceSmoothing;
+            if (++consecutiveRejects < GoalEstimatorConfig.ReacquireFrames) {
+                rejectedFrames++;
+                return null;
+            }
+            restart(frameTarget, captureNanos);
+            return estimate();
+        }
+
+        consecutiveRejects = 0;
+        lastAcceptedNanos = captureNanos;
+        lastHorizontal = measuredHorizontal;
+        distance += GoalEstimatorConfig.DistanceGain * measuredWeight * (measuredDistance - distance);
+        double agreement = 1 - innovation / GoalEstimatorConfig.MaxJumpInches;
+        confidence += GoalEstimatorConfig.ConfidenceSmoothing * (measuredWeight * agreement - confidence);
+        return estimate();
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public int getRejectedFrames() {
+        return rejectedFrames;
+    }
+
+    /** Goal tag position of the latest weighted measurement, camera space. */
+    public double getMeasuredX() {
+        return measuredX;
+    }
+
+    public double getMeasuredY() {
+        return measuredY;
+    }
+
+    public double getMeasuredZ() {
+        return measuredZ;
+    }
+
+    private void restart(AprilTagEnum frameTarget, long captureNanos) {
+        target = frameTarget;
+        distance = measuredDistance;
+        lastHorizontal = measuredHorizontal;
+        // A single frame has nothing to agree with yet
+        confidence = measuredWeight * (1 - GoalEstimatorConfig.ConfidenceSmoothing);
+        consecutiveRejects = 0;
+        lastAcceptedNanos = captureNanos;
+    }
+
+    private AprilTagPosition estimate() {
+        return new AprilTagPosition(target, distance, measuredHorizontal, measuredVertical);
+    }
+
+    private static AprilTagEnum selectTarget(List<FiducialResult> fiducials, AprilTagEnum current) {
+        AprilTagEnum best = null;
+        double bestWeight = 0;
+        for (int i = 0; i < fiducials.size(); i++) {
+            FiducialResult fr = fiducials.get(i);
+            AprilTagEnum tag = AprilTagEnum.fromValue(fr.getFiducialId());
+            if (!isGoal(tag)) {
+                continue;
+            }
+            if (tag == current) {
+                return current;
+            }
+            double weight = weight(fr, distanceOf(fr.getTargetPoseCameraSpace().getPosition().toUnit(CommonConstants.DISTANCE_UNIT)));
+            if (best == null || weight > bestWeight) {
+                best = tag;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    private void measure(List<FiducialResult> fiducials, AprilTagEnum frameTarget) {
+        double total = 0, d = 0, x = 0, y = 0, z = 0, horizontal = 0, vertical = 0;
+        for (int i = 0; i < fiducials.size(); i++) {
+            FiducialResult fr = fiducials.get(i);
+            if (AprilTagEnum.fromValue(fr.getFiducialId()) != frameTarget) {
+                continue;
+            }
+            Position p = fr.getTargetPoseCameraSpace().getPosition().toUnit(CommonConstants.DISTANCE_UNIT);
+            double tagDistance = distanceOf(p);
+            // Keeps a detection usable even when its area reads 0
+            double weight = Math.max(weight(fr, tagDistance), 1.0E-6);
+            total += weight;
+            d += weight * tagDistance;
+            x += weight * p.x;
+            y += weight * p.y;
+            z += weight * p.z;
+            horizontal += weight * fr.getTargetXDegrees();
+            vertical += weight * fr.getTargetYDegrees();
+        }
+        measuredDistance = d / total;
+        measuredX = x / total;
+        measuredY = y / total;
+        measuredZ = z / total;
+        measuredHorizontal = horizontal / total;
+        measuredVertical = vertical / total;
+        measuredWeight = Math.min(total, 1);
+    }
+
+    private static double weight(FiducialResult fr, double tagDistance) {
+        double area = fr.getTargetArea();
+        return area / (area + GoalEstimatorConfig.HalfWeightArea)
+                / (1 + tagDistance / GoalEstimatorConfig.DistanceScaleInches);
+    }
+
+    private static double distanceOf(Position p) {
+        return Math.sqrt(p.x * p.x + p.y * p.y + p.z * p.z);
+    }
+
+    private static boolean isGoal(AprilTagEnum tag) {
+        return tag == AprilTagEnum.BLUE_GOAL || tag == AprilTagEnum.RED_GOAL;
+    }
+}
@@ -1,15 +1,11 @@
 package org.firstinspires.ftc.teamcode.subsystems.vision;
 
-import static com.qualcomm.hardware.limelightvision.LLResultTypes.FiducialResult;
-
 import android.util.Log;
 
 import com.acmerobotics.dashboard.config.Config;
-import com.arcrobotics.ftclib.command.SubsystemBase;
 import com.pedropathing.ftc.FTCCoordinates;
 import com.pedropathing.geometry.PedroCoordinates;
 import com.pedropathing.geometry.Pose;
-import com.qualcomm.hardware.limelightvision.LLResult;
 import com.qualcomm.hardware.limelightvision.Limelight3A;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
@@ -17,25 +13,36 @@ import org.firstinspires.ftc.robotcore.external.Supplier;
 import org.firstinspires.ftc.robotcore.external.Telemetry;
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.Pose3D;
-import org.firstinspires.ftc.robotcore.external.navigation.Position;
-import org.firstinspires.ftc.teamcode.command.CommonConstants;
 import org.firstinspires.ftc.teamcode.common.AprilTagEnum;
 import org.firstinspires.ftc.teamcode.common.AprilTagPosition;
 import org.firstinspires.ftc.teamcode.opmodes.auton.constants.AutonCommonConfigs;
-import org.firstinspires.ftc.teamcode.opmodes.teleop.MainTeleop;
+import org.firstinspires.ftc.teamcode.signals.Signal;
+import org.firstinspires.ftc.teamcode.signals.SignalBus;
+import org.firstinspires.ftc.teamcode.subsystems.RateScheduler.RateGroup;
+import org.firstinspires.ftc.teamcode.subsystems.SounderBotSubsystemBase;
 import org.firstinspires.ftc.teamcode.subsystems.feedback.RGBLightIndicator;
 
 import java.util.Optional;
 
-public class LimeLightAlign extends SubsystemBase {
+public class LimeLightAlign extends SounderBotSubsystemBase {
 
     private static final String LOG_TAG = LimeLightAlign.class.getSimpleName();
 
     private Limelight3A limelight;
 
-    protected Telemetry telemetry;
+    private final PipelineScheduler pipelineScheduler = new PipelineScheduler();
+
+    private final LimelightPoller poller;
+
+    private VisionSnapshot lastPublished;
+
+    /** Key prefix of the frame bookkeeping signals, for sinks that want only those. */
+    public static final String FRAME_SIGNAL_PREFIX = "LimeLight/Frame";
 
-    private static final int PIPELINE_ID = 4; // April tag pipeline id
+    // Loops that found no new frame since the previous loop, and loops whose latest frame was too old to use
+    private long repeatedFrameLoops, staleFrameLoops;
+
+    protected Telemetry telemetry;
 
     private double horizontalAngle, verticalAngle;
 
@@ -51,22 +58,55 @@ public class LimeLightAlign extends SubsystemBase {
 
         public static double rightOuterLimit = 2.5 - 3.5;
 
+        // Older snapshots are treated as "no tag", e.g. when the camera disconnects
+        public static double MaxSnapshotAgeMs = 250;
+
+        // Goal estimates below this confidence are treated as "no tag" by the shooter and auto-align
+        public static double MinGoalConfidence = 0.15;
     }
 
     RGBLightIndicator leftIndicator, rightIndicator;
 
-    //Needs to be removed
+    Signal tagVisibleSignal, tagIdSignal, tagXSignal, tagYSignal, tagZSignal, distanceSignal, horizontalAngleSignal, verticalAngleSignal, pipelineSignal, pipelineSwitchesSignal;
+    Signal goalConfidenceSignal, goalRejectedSignal;
+    Signal frameIdSignal, frameAgeSignal, frameRepeatedSignal, frameStaleSignal;
+
     @Override
-    public void periodic() {
-        super.periodic();
+    protected RateGroup getRateGroup() {
+        // Only publishes the poller's snapshots and drives the indicator lights
+        return RateGroup.VISION;
+    }
 
+    //Needs to be removed
+    @Override
+    protected void doPeriodic() {
         if (petroPathingPoseSupplier != null) {
-            limelight.updateRobotOrientation(petroPathingPoseSupplier.get()
+            poller.setRobotHeading(petroPathingPoseSupplier.get()
                     .getAsCoordinateSystem(FTCCoordinates.INSTANCE).getHeading());
         }
 
+        VisionSnapshot snapshot = poller.getLatest();
+        if (snapshot != lastPublished) {
+            publishSignals(snapshot);
+            lastPublished = snapshot;
+        } else {
+            repeatedFrameLoops++;
+        }
+        double frameAgeMs = snapshot.getAgeMs(System.nanoTime());
+        if (frameAgeMs > LimelightConfig.MaxSnapshotAgeMs) {
+            staleFrameLoops++;
+        }
+        frameIdSignal.set(snapshot.frameId());
+        frameAgeSignal.set(frameAgeMs);
+        frameRepeatedSignal.set(repeatedFrameLoops);
+        frameStaleSignal.set(staleFrameLoops);
+        VisionPipeline pipeline = pipelineScheduler.getCurrent();
+        pipelineSignal.set(pipeline == null ? -1 : pipeline.index());
+        pipelineSwitchesSignal.set(pipelineScheduler.getSwitchCount());
+
         //getObeliskAprilTag();
         AprilTagPosition aprilTagPosition = getAprilTagPosition();
+        tagVisibleSignal.set(aprilTagPosition != null);
 
         if(aprilTagPosition == null) {
             leftIndicator.changeOff();
@@ -99,10 +139,29 @@ public class LimeLightAlign extends SubsystemBase {
     public LimeLightAlign(HardwareMap hardwareMap, Telemetry telemetry) {
         this.telemetry = telemetry;
         limelight = hardwareMap.get(Limelight3A.class, "limelight");
+        poller = new LimelightPoller(limelight, pipelineScheduler);
 
         this.leftIndicator = new RGBLightIndicator(hardwareMap, telemetry, "LeftAlign");
         this.rightIndicator = new RGBLightIndicator(hardwareMap, telemetry, "RightAlign");
 
+        SignalBus signals = SignalBus.get();
+        tagVisibleSignal = signals.addBoolean("LimeLight", "GoalTagVisible");
+        tagIdSignal = signals.addDouble("LimeLight", "TagId");
+        tagXSignal = signals.addDouble("LimeLight", "X");
+        tagYSignal = signals.addDouble("LimeLight", "Y");
+        tagZSignal = signals.addDouble("LimeLight", "Z");
+        distanceSignal = signals.addDouble("LimeLight", "Distance");
+        horizontalAngleSignal = signals.addDouble("LimeLight", "HorizontalAngle");
+        verticalAngleSignal = signals.addDouble("LimeLight", "VerticalAngle");
+        frameIdSignal = signals.addDouble("LimeLight", "FrameId");
+        frameAgeSignal = signals.addDouble("LimeLight", "FrameAgeMs");
+        frameRepeatedSignal = signals.addDouble("LimeLight", "FrameRepeatedLoops");
+        frameStaleSignal = signals.addDouble("LimeLight", "FrameStaleLoops");
+        pipelineSignal = signals.addDouble("LimeLight", "Pipeline");
+        pipelineSwitchesSignal = signals.addDouble("LimeLight", "PipelineSwitches");
+        goalConfidenceSignal = signals.addDouble("LimeLight", "GoalConfidence");
+        goalRejectedSignal = signals.addDouble("LimeLight", "GoalRejectedFrames");
+
         start();
     }
 
@@ -112,7 +171,7 @@ public class LimeLightAlign extends SubsystemBase {
     }
 
     public Optional<AprilTagEnum> getObeliskAprilTag() {
-        Optional<AprilTagEnum> result = scanObeliskTag().map(fiducialResult -> AprilTagEnum.fromValue(fiducialResult.getFiducialId()));
+        Optional<AprilTagEnum> result = getFreshSnapshot().map(VisionSnapshot::obeliskTag);
         if (result.isPresent()) {
             telemetry.addData("Scanned Obelisk Tag ID: ", result.get().getValue());
         } else {
@@ -141,78 +200,80 @@ public class LimeLightAlign extends SubsystemBase {
 //        return aprilTagEnum;
     }
 
+    /**
+     * Goal tag estimate from the latest camera frame, null when no goal tag is visible or its
+     * confidence is below {@link LimelightConfig#MinGoalConfidence}. Served from the poller's
+     * snapshot, so any number of callers per loop cost nothing on the device.
+     */
     public AprilTagPosition getAprilTagPosition(){
-        FiducialResult fr = scanAprilTag();
-        AprilTagPosition aprilTagPosition = null;
-        if (fr != null) {
-            try {
-                AprilTagEnum aprilTagEnum = null;
-                aprilTagEnum = AprilTagEnum.fromValue(fr.getFiducialId());
-
-                if(aprilTagEnum == AprilTagEnum.BLUE_GOAL || aprilTagEnum == AprilTagEnum.RED_GOAL) {
-
-                    double distance = 0d;
-                    Pose3D pose3D = fr.getTargetPoseCameraSpace();
-                    Position p = pose3D.getPosition().toUnit(CommonConstants.DISTANCE_UNIT);
-
-                    double x = p.x;
-                    double y = p.y;
-                    double z = p.z;
-
-                    distance = Math.sqrt(x * x + y * y + z * z);
-
-                    aprilTagPosition = new AprilTagPosition(aprilTagEnum, distance, fr.getTargetXDegrees(), fr.getTargetYDegrees());
-
-                    boolean addTelemetry = MainTeleop.Telemetry.LimeLight;
-                    if (addTelemetry) {
-                        telemetry.addData("Tag ID", aprilTagEnum.getValue());
-                        telemetry.addData("x", x);
-                        telemetry.addData("y", y);
-                        telemetry.addData("z", z);
-                        telemetry.addData("Estimated Distance", aprilTagPosition.distance());
-                        telemetry.addData("Estimated Horizontal shift", aprilTagPosition.horizontalAngle());
-                        telemetry.addData("Estimated Vertical Shift", aprilTagPosition.verticalAngle());
-                    }
-                }
-            } catch (Exception e) {
-                telemetry.addData("Limelight", "No Valid AprilTags detected");
-            }
-        }
-        telemetry.update();
-        return aprilTagPosition;
+        return getFreshSnapshot().map(snapshot -> snapshot.confidentGoalTag(LimelightConfig.MinGoalConfidence)).orElse(null);
     }
 
-    public void scanObjects(){
+    /** Id of the latest AprilTag frame, 0 before the first one. */
+    public long getFrameId() {
+        return poller.getLatest().frameId();
     }
 
-    private FiducialResult scanAprilTag() {
+    /** True when a frame newer than the given id has arrived, whatever its age. */
+    public boolean hasNewFrameSince(long frameId) {
+        return poller.getLatest().isNewerThan(frameId);
+    }
 
-        // Set AprilTag pipeline
-        limelight.pipelineSwitch(PIPELINE_ID);
-        LLResult result = limelight.getLatestResult();
+    /** Milliseconds since the latest frame was captured, infinite before the first frame. */
+    public double getFrameAgeMs() {
+        return poller.getLatest().getAgeMs(System.nanoTime());
+    }
 
-        if (result != null && result.isValid()) {
-            FiducialResult fr =  result.getFiducialResults().get(0);;
-            return fr;
+    /** Latest snapshot, empty when the camera has not delivered a frame recently. */
+    public Optional<VisionSnapshot> getFreshSnapshot() {
+        VisionSnapshot snapshot = poller.getLatest();
+        if (snapshot.isStale(System.nanoTime(), LimelightConfig.MaxSnapshotAgeMs)) {
+            return Optional.empty();
         }
-
-        return null;
+        return Optional.of(snapshot);
     }
 
-    private Optional<FiducialResult> scanObeliskTag() {
-        limelight.pipelineSwitch(PIPELINE_ID);
-        LLResult result = limelight.getLatestResult();
+    private void publishSignals(VisionSnapshot snapshot) {
+        goalConfidenceSignal.set(snapshot.goalConfidence());
+        goalRejectedSignal.set(snapshot.goalRejectedFrames());
+        AprilTagPosition goalTag = snapshot.goalTag();
+        if (goalTag == null) {
+            return;
+        }
+        tagIdSignal.set(goalTag.aprilTag().getValue());
+        tagXSignal.set(snapshot.tagX());
+        tagYSignal.set(snapshot.tagY());
+        tagZSignal.set(snapshot.tagZ());
+        distanceSignal.set(goalTag.distance());
+        horizontalAngleSignal.set(goalTag.horizontalAngle());
+        verticalAngleSignal.set(goalTag.verticalAngle());
+    }
 
-        if (result != null && result.isValid()) {
-            return result.getFiducialResults().stream().filter(fiducialResult -> AprilTagEnum.isValidObeliskTag(fiducialResult.getFiducialId())).findFirst();
+    /** Latest artifact detection, empty unless {@link VisionConsumer#ARTIFACT_INTAKE} was requested recently. */
+    public Optional<ArtifactSnapshot> scanObjects(){
+        ArtifactSnapshot artifacts = poller.getLatestArtifacts();
+        if (artifacts == null || artifacts.getAgeMs(System.nanoTime()) > LimelightConfig.MaxSnapshotAgeMs) {
+            return Optional.empty();
         }
+        return Optional.of(artifacts);
+    }
 
-        return Optional.empty();
+    /**
+     * Asks for the consumer's pipeline until {@link #releasePipeline} is called, see
+     * {@link PipelineScheduler} for how competing requests share the camera.
+     */
+    public void requestPipeline(VisionConsumer consumer) {
+        pipelineScheduler.request(consumer);
     }
 
+    public void releasePipeline(VisionConsumer consumer) {
+        pipelineScheduler.release(consumer);
+    }
 
     public void start(){
+        // The poller selects the pipeline on its first pass
         limelight.start();
+        poller.start();
         telemetry.addData(">", "Robot Ready. Press Play");
         telemetry.update();
         // Optional: reduce telemetry update frequency
@@ -225,33 +286,37 @@ public class LimeLightAlign extends SubsystemBase {
             return Optional.empty();
         }
 
-        limelight.updateRobotOrientation(petroPathingPoseSupplier.get()
+        poller.setRobotHeading(petroPathingPoseSupplier.get()
                 .getAsCoordinateSystem(FTCCoordinates.INSTANCE).getHeading());
-        LLResult scanResult = limelight.getLatestResult();
+        Optional<VisionSnapshot> snapshot = getFreshSnapshot();
 
-        if (scanResult == null) {
+        if (!snapshot.isPresent()) {
             Log.i(LOG_TAG, "no limelight scan result");
             return Optional.empty();
         }
 
-        Pose3D limelightReported = scanResult.getBotpose();
+        Pose3D limelightReported = snapshot.get().botpose();
         if (limelightReported == null) {
             Log.i(LOG_TAG, "no limelight reported pose");
             return Optional.empty();
         }
 
-        Pose ftcPose = new Pose(
-                meterToInch(limelightReported.getPosition().x),
-                meterToInch(limelightReported.getPosition().y),
-                limelightReported.getOrientation().getYaw(AngleUnit.RADIANS),
-                FTCCoordinates.INSTANCE);
-        Log.i(AutonCommonConfigs.LOG_TAG, "limelight reported ftcPose = " + ftcPose);
-        Pose pedroPose = ftcPose.getAsCoordinateSystem(PedroCoordinates.INSTANCE);
+        Pose pedroPose = toPedroPose(limelightReported);
         Log.i(AutonCommonConfigs.LOG_TAG, "limelight reported pedroPose = " + pedroPose);
         return Optional.of(pedroPose);
     }
 
-    private double meterToInch(double meter) {
+    /** Converts a Limelight botpose (FTC field frame, meters) to a Pedro pose (inches). */
+    public static Pose toPedroPose(Pose3D botpose) {
+        Pose ftcPose = new Pose(
+                meterToInch(botpose.getPosition().x),
+                meterToInch(botpose.getPosition().y),
+                botpose.getOrientation().getYaw(AngleUnit.RADIANS),
+                FTCCoordinates.INSTANCE);
+        return ftcPose.getAsCoordinateSystem(PedroCoordinates.INSTANCE);
+    }
+
+    public static double meterToInch(double meter) {
         return meter * 39.3701;
     }
 }
\ No newline at end of file
@@ -0,0 +1,193 @@
+package org.firstinspires.ftc.teamcode.subsystems.vision;
+
+import static com.qualcomm.hardware.limelightvision.LLResultTypes.FiducialResult;
+
+import android.util.Log;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.bylazar.configurables.annotations.Configurable;
+import com.qualcomm.hardware.limelightvision.LLResult;
+import com.qualcomm.hardware.limelightvision.Limelight3A;
+
+import org.firstinspires.ftc.teamcode.common.AprilTagEnum;
+import org.firstinspires.ftc.teamcode.common.AprilTagPosition;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Polls the Limelight on its own thread and publishes one {@link VisionSnapshot} per new AprilTag
+ * frame (or {@link ArtifactSnapshot} per artifact frame). The loop thread only ever reads
+ * {@link #getLatest()}, a single volatile load, so the number of vision consumers per loop no
+ * longer matters. Pipeline switches also happen here, when the {@link PipelineScheduler} asks.
+ *
+ * Only one poller runs at a time: starting one stops the previous, and the opmode base classes
+ * call {@link #stopActive()} when the opmode ends.
+ */
+public final class LimelightPoller {
+
+    private static final String LOG_TAG = LimelightPoller.class.getSimpleName();
+
+    @Config
+    @Configurable
+    public static class LimelightPollerConfig {
+        // Limelight 3A runs AprilTag pipelines at up to ~90 fps
+        public static int PollPeriodMs = 5;
+
+        // Robot heading is only pushed to the camera for MegaTag2 when it moved more than this
+        public static double HeadingDeadband = 0.002;
+    }
+
+    private static volatile LimelightPoller active;
+
+    private final Limelight3A limelight;
+    private final PipelineScheduler scheduler;
+    private final GoalTagEstimator goalEstimator = new GoalTagEstimator();
+    private final AtomicReference<VisionSnapshot> latest = new AtomicReference<>(VisionSnapshot.EMPTY);
+    private final AtomicReference<ArtifactSnapshot> latestArtifacts = new AtomicReference<>();
+    private volatile double robotHeading = Double.NaN;
+    private volatile boolean running;
+    private Thread thread;
+
+    private double lastFrameTimestamp = Double.NaN;
+    private long frameCount;
+    private double lastSentHeading = Double.NaN;
+
+    public LimelightPoller(Limelight3A limelight, PipelineScheduler scheduler) {
+        this.limelight = limelight;
+        this.scheduler = scheduler;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        LimelightPoller previous = active;
+        if (previous != null) {
+            previous.stop();
+        }
+        running = true;
+        thread = new Thread(this::pollLoop, "LimelightPoller");
+        thread.setDaemon(true);
+        thread.start();
+        active = this;
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+        if (active == this) {
+            active = null;
+        }
+    }
+
+    /** Stops the poller of the opmode that is ending, if any. */
+    public static void stopActive() {
+        LimelightPoller poller = active;
+        if (poller != null) {
+            poller.stop();
+        }
+    }
+
+    public VisionSnapshot getLatest() {
+        return latest.get();
+    }
+
+    /** Latest artifact detection, null before the artifact pipeline ever ran. */
+    public ArtifactSnapshot getLatestArtifacts() {
+        return latestArtifacts.get();
+    }
+
+    /**
+     * Heading the poller sends to the camera for MegaTag2 localization. Called from the loop
+     * thread, the device write happens on the poller thread.
+     */
+    public void setRobotHeading(double heading) {
+        robotHeading = heading;
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                switchPipeline();
+                sendHeading();
+                LLResult result = limelight.getLatestResult();
+                if (result != null && result.isValid() && result.getTimestamp() != lastFrameTimestamp) {
+                    lastFrameTimestamp = result.getTimestamp();
+                    onFrame(result);
+                }
+            } catch (RuntimeException e) {
+                Log.w(LOG_TAG, "Limelight poll failed", e);
+            }
+
+            try {
+                Thread.sleep(LimelightPollerConfig.PollPeriodMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void switchPipeline() {
+        long now = System.nanoTime();
+        VisionPipeline pipeline = scheduler.select(now);
+        if (pipeline != null && limelight.pipelineSwitch(pipeline.index())) {
+            scheduler.onSwitched(pipeline, now);
+        }
+    }
+
+    /**
+     * Results carry the pipeline that produced them, frames still in flight from before a switch
+     * land in the right snapshot.
+     */
+    private void onFrame(LLResult result) {
+        long captureNanos = captureNanos(result);
+        int pipeline = result.getPipelineIndex();
+        if (pipeline == VisionPipeline.APRIL_TAG.index()) {
+            latest.set(buildSnapshot(result, captureNanos));
+        } else if (pipeline == VisionPipeline.ARTIFACT.index()) {
+            ArtifactSnapshot artifacts = ArtifactSnapshot.fromPythonOutput(result.getPythonOutput(), captureNanos);
+            if (artifacts != null) {
+                latestArtifacts.set(artifacts);
+            }
+        }
+    }
+
+    private static long captureNanos(LLResult result) {
+        // Staleness is how long ago the hub received the result, the latencies cover capture to send
+        long receivedNanos = System.nanoTime() - (long) (result.getStaleness() * 1.0E6);
+        return receivedNanos - (long) ((result.getCaptureLatency() + result.getTargetingLatency()) * 1.0E6);
+    }
+
+    private void sendHeading() {
+        double heading = robotHeading;
+        if (Double.isNaN(heading)) {
+            return;
+        }
+        if (Double.isNaN(lastSentHeading) || Math.abs(heading - lastSentHeading) > LimelightPollerConfig.HeadingDeadband) {
+            limelight.updateRobotOrientation(heading);
+            lastSentHeading = heading;
+        }
+    }
+
+    private VisionSnapshot buildSnapshot(LLResult result, long captureNanos) {
+        List<FiducialResult> fiducials = result.getFiducialResults();
+        AprilTagPosition goalTag = goalEstimator.update(fiducials, captureNanos);
+
+        AprilTagEnum obeliskTag = null;
+        for (int i = 0; i < fiducials.size() && obeliskTag == null; i++) {
+            AprilTagEnum tag = AprilTagEnum.fromValue(fiducials.get(i).getFiducialId());
+            if (AprilTagEnum.OBELISK_ALL.contains(tag)) {
+                obeliskTag = tag;
+            }
+        }
+
+        return new VisionSnapshot(goalTag, goalEstimator.getConfidence(), goalEstimator.getRejectedFrames(),
+                goalEstimator.getMeasuredX(), goalEstimator.getMeasuredY(), goalEstimator.getMeasuredZ(),
+                obeliskTag, result.getBotpose(), result.getBotposeTagCount(), result.getBotposeAvgDist(), captureNanos,
+                ++frameCount);
+    }
+}
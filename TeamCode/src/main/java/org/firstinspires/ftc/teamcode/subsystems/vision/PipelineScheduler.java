@@ -0,0 +1,122 @@
+package org.firstinspires.ftc.teamcode.subsystems.vision;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.bylazar.configurables.annotations.Configurable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides which Limelight pipeline should be active. Commands {@link #request} and
+ * {@link #release} a {@link VisionConsumer} from the loop thread; the {@link LimelightPoller}
+ * asks {@link #select} on every poll and only calls pipelineSwitch() when the answer changes.
+ *
+ * Rules: the highest priority active consumer wins if it is exclusive. Otherwise every pipeline
+ * wanted by an active consumer gets the camera in turn, each for at least its dwell time, the
+ * higher priority one first. A pipeline nobody wants is left immediately.
+ */
+public final class PipelineScheduler {
+
+    @Config
+    @Configurable
+    public static class PipelineSchedulerConfig {
+        public static int AprilTagPipeline = 4;
+
+        // Slot ArtifactDetection.py is uploaded to
+        public static int ArtifactPipeline = 5;
+
+        // Goal tag snapshots older than LimelightConfig.MaxSnapshotAgeMs count as lost, keep the
+        // artifact slice well below it so goal tracking survives intake
+        public static double AprilTagDwellMs = 400;
+
+        public static double ArtifactDwellMs = 120;
+
+        // CommandFactory.startIntake()/stopIntake() request and release ARTIFACT_INTAKE
+        public static boolean ArtifactDetectionDuringIntake = false;
+    }
+
+    private static final VisionConsumer[] CONSUMERS = VisionConsumer.values();
+
+    private final AtomicInteger active = new AtomicInteger(VisionConsumer.GOAL_TRACKING.bit());
+
+    // Only touched by the poller thread
+    private VisionPipeline current;
+    private long switchedAtNanos;
+
+    private volatile VisionPipeline published;
+    private volatile int switchCount;
+
+    public void request(VisionConsumer consumer) {
+        active.getAndUpdate(bits -> bits | consumer.bit());
+    }
+
+    public void release(VisionConsumer consumer) {
+        active.getAndUpdate(bits -> bits & ~consumer.bit());
+    }
+
+    public boolean isActive(VisionConsumer consumer) {
+        return (active.get() & consumer.bit()) != 0;
+    }
+
+    /**
+     * Pipeline the camera should run now, null when the current one should stay. Called by the poller thread.
+     */
+    VisionPipeline select(long nowNanos) {
+        int bits = active.get();
+        VisionConsumer top = null;
+        for (int i = CONSUMERS.length - 1; i >= 0; i--) {
+            if ((bits & CONSUMERS[i].bit()) != 0) {
+                top = CONSUMERS[i];
+                break;
+            }
+        }
+        if (top == null) {
+            top = VisionConsumer.GOAL_TRACKING;
+        }
+
+        boolean currentWanted = current != null && (top.isExclusive()
+                ? current == top.getPipeline()
+                : isWanted(bits, current));
+        if (currentWanted && (nowNanos - switchedAtNanos < current.dwellNanos() || top.isExclusive())) {
+            return null;
+        }
+        if (top.isExclusive()) {
+            return top.getPipeline();
+        }
+
+        // Hand over to the highest priority pipeline other than the current one
+        for (int i = CONSUMERS.length - 1; i >= 0; i--) {
+            VisionConsumer consumer = CONSUMERS[i];
+            if ((bits & consumer.bit()) != 0 && consumer.getPipeline() != current) {
+                return consumer.getPipeline();
+            }
+        }
+        // Nothing else wanted, stay
+        return currentWanted ? null : top.getPipeline();
+    }
+
+    private static boolean isWanted(int bits, VisionPipeline pipeline) {
+        for (VisionConsumer consumer : CONSUMERS) {
+            if ((bits & consumer.bit()) != 0 && consumer.getPipeline() == pipeline) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Called by the poller thread after pipelineSwitch() went through. */
+    void onSwitched(VisionPipeline pipeline, long nowNanos) {
+        current = pipeline;
+        switchedAtNanos = nowNanos;
+        published = pipeline;
+        switchCount++;
+    }
+
+    /** Pipeline the camera was last switched to, null before the first switch. */
+    public VisionPipeline getCurrent() {
+        return published;
+    }
+
+    public int getSwitchCount() {
+        return switchCount;
+    }
+}
@@ -0,0 +1,34 @@
+package org.firstinspires.ftc.teamcode.subsystems.vision;
+
+/**
+ * Users of the camera, in increasing priority. An exclusive consumer gets its pipeline alone while
+ * it is active; non-exclusive consumers on different pipelines share the camera in dwell-length
+ * slices.
+ */
+public enum VisionConsumer {
+    // Background goal tracking for the alignment lights and the shooter's auto speed, always active
+    GOAL_TRACKING(VisionPipeline.APRIL_TAG, false),
+    ARTIFACT_INTAKE(VisionPipeline.ARTIFACT, false),
+    OBELISK(VisionPipeline.APRIL_TAG, true),
+    GOAL_AIM(VisionPipeline.APRIL_TAG, true);
+
+    private final VisionPipeline pipeline;
+    private final boolean exclusive;
+
+    VisionConsumer(VisionPipeline pipeline, boolean exclusive) {
+        this.pipeline = pipeline;
+        this.exclusive = exclusive;
+    }
+
+    public VisionPipeline getPipeline() {
+        return pipeline;
+    }
+
+    public boolean isExclusive() {
+        return exclusive;
+    }
+
+    int bit() {
+        return 1 << ordinal();
+    }
+}
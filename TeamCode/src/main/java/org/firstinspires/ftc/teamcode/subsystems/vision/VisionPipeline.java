@@ -0,0 +1,25 @@
+package org.firstinspires.ftc.teamcode.subsystems.vision;
+
+/**
+ * Limelight pipelines the robot uses. The slot numbers are the ones configured in the Limelight
+ * web UI, see {@link PipelineScheduler.PipelineSchedulerConfig}.
+ */
+public enum VisionPipeline {
+    APRIL_TAG,
+    // ArtifactDetection.py
+    ARTIFACT;
+
+    public int index() {
+        return this == APRIL_TAG
+                ? PipelineScheduler.PipelineSchedulerConfig.AprilTagPipeline
+                : PipelineScheduler.PipelineSchedulerConfig.ArtifactPipeline;
+    }
+
+    /** Minimum time the camera stays on this pipeline once switched to it while others are waiting. */
+    long dwellNanos() {
+        double ms = this == APRIL_TAG
+                ? PipelineScheduler.PipelineSchedulerConfig.AprilTagDwellMs
+                : PipelineScheduler.PipelineSchedulerConfig.ArtifactDwellMs;
+        return (long) (ms * 1.0E6);
+    }
+}
@@ -0,0 +1,133 @@
+package org.firstinspires.ftc.teamcode.subsystems.vision;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.bylazar.configurables.annotations.Configurable;
+import com.pedropathing.follower.Follower;
+import com.pedropathing.geometry.Pose;
+
+import org.firstinspires.ftc.teamcode.signals.Signal;
+import org.firstinspires.ftc.teamcode.signals.SignalBus;
+import org.firstinspires.ftc.teamcode.subsystems.SounderBotSubsystemBase;
+import org.firstinspires.ftc.teamcode.util.PoseHistory;
+
+/**
+ * Corrects Pinpoint drift with the Limelight botpose. Every loop the follower pose goes into a
+ * {@link PoseHistory}; when a new camera frame with a botpose arrives, the vision pose is compared
+ * with the follower pose at the frame's capture time (not the current one, the robot moved since),
+ * and a fraction of the difference is added to the current follower pose.
+ *
+ * The fraction shrinks with tag distance and robot speed, where MegaTag poses are noisy or
+ * motion-blurred, and frames that disagree by more than MaxCorrectionInches are dropped as outliers.
+ */
+public class VisionPoseFusion extends SounderBotSubsystemBase {
+
+    @Config
+    @Configurable
+    public static class PoseFusionConfig {
+        // Off until the gains are checked on the robot, autos keep the odometry pose
+        public static boolean Enabled = false;
+
+        // Share of the position error corrected per frame for a close tag and a stopped robot
+        public static double MaxGain = 0.3;
+
+        // Gain halves at this tag distance (inches) and at this speed (inches/s)
+        public static double DistanceScaleInches = 60;
+        public static double SpeedScaleInchesPerSecond = 20;
+
+        public static double MaxTagDistanceInches = 144;
+        public static double MaxCorrectionInches = 12;
+        public static double MaxTurnRateDegreesPerSecond = 90;
+
+        // Pinpoint's IMU heading is better than MegaTag1's, only fuse position by default
+        public static boolean FuseHeading = false;
+        public static double HeadingGain = 0.1;
+    }
+
+    // ~1.3 s at 50 Hz, well beyond the camera latency
+    private static final int HISTORY_SIZE = 64;
+
+    private final Follower follower;
+    private final LimeLightAlign limeLight;
+    private final PoseHistory history = new PoseHistory(HISTORY_SIZE);
+    private long lastFusedFrameId;
+    private int rejected;
+
+    private final Signal acceptedSignal, rejectedSignal, innovationSignal, gainSignal, correctionSignal;
+
+    public VisionPoseFusion(Follower follower, LimeLightAlign limeLight) {
+        this.follower = follower;
+        this.limeLight = limeLight;
+
+        SignalBus signals = SignalBus.get();
+        acceptedSignal = signals.addBoolean("PoseFusion", "Accepted");
+        rejectedSignal = signals.addDouble("PoseFusion", "Rejected");
+        innovationSignal = signals.addDouble("PoseFusion", "InnovationInches");
+        gainSignal = signals.addDouble("PoseFusion", "Gain");
+        correctionSignal = signals.addDouble("PoseFusion", "CorrectionInches");
+    }
+
+    @Override
+    protected void doPeriodic() {
+        Pose pose = follower.getPose();
+        long now = System.nanoTime();
+        history.add(now, pose.getX(), pose.getY(), pose.getHeading());
+
+        acceptedSignal.set(false);
+        if (!PoseFusionConfig.Enabled) {
+            return;
+        }
+        VisionSnapshot snapshot = limeLight.getFreshSnapshot().orElse(null);
+        if (snapshot == null || !snapshot.isNewerThan(lastFusedFrameId)
+                || snapshot.botpose() == null || snapshot.botposeTagCount() == 0) {
+            return;
+        }
+        lastFusedFrameId = snapshot.frameId();
+
+        if (!history.lookup(snapshot.captureNanos())) {
+            reject();
+            return;
+        }
+        double pastX = history.getX();
+        double pastY = history.getY();
+        double pastHeading = history.getHeading();
+
+        Pose vision = LimeLightAlign.toPedroPose(snapshot.botpose());
+        double dx = vision.getX() - pastX;
+        double dy = vision.getY() - pastY;
+        double innovation = Math.hypot(dx, dy);
+        innovationSignal.set(innovation);
+
+        double tagDistance = LimeLightAlign.meterToInch(snapshot.botposeAvgDistance());
+        double elapsedSeconds = (now - snapshot.captureNanos()) / 1.0E9;
+        double speed = elapsedSeconds > 0 ? Math.hypot(pose.getX() - pastX, pose.getY() - pastY) / elapsedSeconds : 0;
+        double turnRate = elapsedSeconds > 0
+                ? Math.toDegrees(Math.abs(PoseHistory.angleDifference(pose.getHeading(), pastHeading))) / elapsedSeconds : 0;
+        if (innovation > PoseFusionConfig.MaxCorrectionInches
+                || tagDistance > PoseFusionConfig.MaxTagDistanceInches
+                || turnRate > PoseFusionConfig.MaxTurnRateDegreesPerSecond) {
+            reject();
+            return;
+        }
+
+        double gain = PoseFusionConfig.MaxGain
+                / (1 + tagDistance / PoseFusionConfig.DistanceScaleInches)
+                / (1 + speed / PoseFusionConfig.SpeedScaleInchesPerSecond);
+        double headingCorrection = 0;
+        if (PoseFusionConfig.FuseHeading) {
+            headingCorrection = PoseFusionConfig.HeadingGain * gain / PoseFusionConfig.MaxGain
+                    * PoseHistory.angleDifference(vision.getHeading(), pastHeading);
+        }
+        follower.setPose(new Pose(pose.getX() + gain * dx, pose.getY() + gain * dy, pose.getHeading() + headingCorrection));
+        // Later frames must be compared with the corrected trajectory, not corrected twice
+        history.shift(gain * dx, gain * dy, headingCorrection);
+
+        acceptedSignal.set(true);
+        gainSignal.set(gain);
+        correctionSignal.set(gain * innovation);
+    }
+
+    private void reject() {
+        rejected++;
+        rejectedSignal.set(rejected);
+    }
+}
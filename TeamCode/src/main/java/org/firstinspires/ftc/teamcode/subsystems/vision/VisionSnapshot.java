@@ -0,0 +1,64 @@
+package org.firstinspires.ftc.teamcode.subsystems.vision;
+
+import org.firstinspires.ftc.robotcore.external.navigation.Pose3D;
+import org.firstinspires.ftc.teamcode.common.AprilTagEnum;
+import org.firstinspires.ftc.teamcode.common.AprilTagPosition;
+
+/**
+ * Everything the robot code uses from one Limelight frame, built once by {@link LimelightPoller}
+ * when the frame arrives. Snapshots are immutable, so any number of subsystems and commands can
+ * read the same one in a loop without touching the device.
+ *
+ * @param goalTag      goal AprilTag with filtered distance and tx/ty, null when no goal tag is visible
+ *                     or the frame was rejected as an outlier by {@link GoalTagEstimator}
+ * @param goalConfidence     0..1, how much the goal estimate can be trusted
+ * @param goalRejectedFrames goal frames rejected as outliers since the opmode started
+ * @param tagX         goal tag position in camera space, tagY and tagZ likewise (CommonConstants.DISTANCE_UNIT)
+ * @param obeliskTag   first obelisk tag in the frame, null when none is visible
+ * @param botpose      MegaTag robot pose in the FTC field frame (meters), null when the frame has none
+ * @param botposeTagCount    tags that contributed to the botpose
+ * @param botposeAvgDistance average camera-to-tag distance of those tags, meters
+ * @param captureNanos System.nanoTime() at which the camera captured the frame (latency removed)
+ * @param frameId      increases by one with every AprilTag frame, 0 before the first; consumers
+ *                     remember the id they used last to react to each frame only once
+ */
+public record VisionSnapshot(
+        AprilTagPosition goalTag,
+        double goalConfidence,
+        int goalRejectedFrames,
+        double tagX,
+        double tagY,
+        double tagZ,
+        AprilTagEnum obeliskTag,
+        Pose3D botpose,
+        int botposeTagCount,
+        double botposeAvgDistance,
+        long captureNanos,
+        long frameId) {
+
+    /** Published until the first frame arrives. */
+    public static final VisionSnapshot EMPTY = new VisionSnapshot(null, 0, 0, 0, 0, 0, null, null, 0, 0, Long.MIN_VALUE, 0);
+
+    public boolean hasFrame() {
+        return frameId != 0;
+    }
+
+    /** True when this frame came after the one with the given id. */
+    public boolean isNewerThan(long otherFrameId) {
+        return frameId > otherFrameId;
+    }
+
+    /** Goal tag when its confidence reaches minConfidence, otherwise null. */
+    public AprilTagPosition confidentGoalTag(double minConfidence) {
+        return goalConfidence >= minConfidence ? goalTag : null;
+    }
+
+    /** Time since the frame was captured, infinite before the first frame. */
+    public double getAgeMs(long nowNanos) {
+        return hasFrame() ? (nowNanos - captureNanos) / 1.0E6 : Double.POSITIVE_INFINITY;
+    }
+
+    public boolean isStale(long nowNanos, double maxAgeMs) {
+        return getAgeMs(nowNanos) > maxAgeMs;
+    }
+}
@@ -0,0 +1,67 @@
+package org.firstinspires.ftc.teamcode.util;
+
+/**
+ * Turns camera bearings into an absolute heading setpoint so aiming can be closed on the gyro at
+ * full loop rate. Each frame's horizontal angle is combined with the heading the robot had when
+ * the frame was captured (from a short heading history), which cancels the camera latency; between
+ * frames, and when the tag drops out briefly, the error comes from the current heading alone.
+ *
+ * Errors are returned in the camera's convention (degrees, positive when the target is to the
+ * right), so existing tx-based gains keep their sign.
+ */
+public final class HeadingAimController {
+
+    // ~0.6 s at 50 Hz, covers the camera latency
+    private static final int HISTORY_SIZE = 32;
+
+    private final PoseHistory headings = new PoseHistory(HISTORY_SIZE);
+    private double lastHeading = Double.NaN;
+    private double targetHeading = Double.NaN;
+    private long targetFrameId = -1;
+    private long targetCaptureNanos;
+
+    /** Call once per loop with the current heading (radians, counter-clockwise positive). */
+    public void recordHeading(long nowNanos, double heading) {
+        headings.add(nowNanos, 0, 0, heading);
+        lastHeading = heading;
+    }
+
+    /**
+     * Refreshes the setpoint from a camera frame. Frames that were already used are ignored.
+     *
+     * @param frameId         id of the frame, see VisionSnapshot#frameId
+     * @param horizontalAngle target bearing in the frame, degrees, positive to the right
+     * @param offset          bearing the target should end up at, degrees
+     */
+    public void onVision(long frameId, long captureNanos, double horizontalAngle, double offset) {
+        if (frameId == targetFrameId || Double.isNaN(lastHeading)) {
+            return;
+        }
+        // Frames older than the history (just after start) are aimed from the current heading
+        double headingAtCapture = headings.lookup(captureNanos) ? headings.getHeading() : lastHeading;
+        targetHeading = headingAtCapture - Math.toRadians(horizontalAngle - offset);
+        targetFrameId = frameId;
+        targetCaptureNanos = captureNanos;
+    }
+
+    /** True when the setpoint comes from a frame captured at most maxAgeMs ago. */
+    public boolean hasTarget(long nowNanos, double maxAgeMs) {
+        return !Double.isNaN(targetHeading) && (nowNanos - targetCaptureNanos) / 1.0E6 <= maxAgeMs;
+    }
+
+    /** Remaining bearing error in degrees, positive when the robot has to turn right. */
+    public double errorDegrees(double heading) {
+        return Math.toDegrees(PoseHistory.angleDifference(heading, targetHeading));
+    }
+
+    public double getTargetHeading() {
+        return targetHeading;
+    }
+
+    public void reset() {
+        headings.clear();
+        lastHeading = Double.NaN;
+        targetHeading = Double.NaN;
+        targetFrameId = -1;
+    }
+}
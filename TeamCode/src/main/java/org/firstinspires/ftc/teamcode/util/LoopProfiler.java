@@ -0,0 +1,198 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import android.util.Log;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.bylazar.configurables.annotations.Configurable;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.datalogger.DataLogger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Opt-in loop time breakdown. The opmode base classes time the whole loop, the scheduler, the
+ * hardware output commit and the signal bus; SounderBotSubsystemBase times each periodic() and SounderBotCommandBase each
+ * execute(). Every sample goes into a fixed-bucket histogram, so recording never allocates.
+ * At the end of the opmode the p50/p95/p99/max per section are written to a "LoopProfile"
+ * DataLogger file, telemetry and logcat.
+ */
+public final class LoopProfiler {
+
+    private static final String LOG_TAG = LoopProfiler.class.getSimpleName();
+
+    @Config
+    @Configurable
+    public static class LoopProfilerConfig {
+        // Read when the opmode initializes
+        public static boolean Enabled = false;
+    }
+
+    public static final int MAX_SECTIONS = 64;
+
+    // 20us buckets up to 50ms, anything slower lands in the last bucket (max is tracked exactly)
+    private static final long BUCKET_NANOS = 20_000;
+    private static final int BUCKET_COUNT = 2500;
+
+    public static final String LOOP = "Loop";
+    public static final String SCHEDULER = "Scheduler";
+    public static final String SIGNALS = "Signals";
+    public static final String HARDWARE_COMMIT = "HardwareCommit";
+
+    private static LoopProfiler instance = new LoopProfiler(false);
+
+    private final boolean enabled;
+    private final List<Section> sections = new ArrayList<>();
+    private final Map<String, Integer> sectionIds = new HashMap<>();
+    private final int loopSection;
+    private long lastLoopStart;
+    private boolean finished;
+
+    private LoopProfiler(boolean enabled) {
+        this.enabled = enabled;
+        this.loopSection = section(LOOP);
+    }
+
+    public static LoopProfiler get() {
+        return instance;
+    }
+
+    /**
+     * Starts a new profile for the opmode that is initializing, enabled by {@link LoopProfilerConfig#Enabled}.
+     */
+    public static void reset() {
+        instance = new LoopProfiler(LoopProfilerConfig.Enabled);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Id of a named section. Registering the same name again returns the same id, so commands that
+     * are constructed many times share one histogram.
+     */
+    public int section(String name) {
+        Integer id = sectionIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (sections.size() >= MAX_SECTIONS) {
+            // Profiling is diagnostics only, fold anything beyond the limit into the last section
+            return MAX_SECTIONS - 1;
+        }
+        sections.add(new Section(name));
+        sectionIds.put(name, sections.size() - 1);
+        return sections.size() - 1;
+    }
+
+    /** Start timestamp for {@link #stop}, 0 when profiling is off. */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /** Records the time since startNanos and returns it, 0 when profiling is off. */
+    public long stop(int section, long startNanos) {
+        if (!enabled) {
+            return 0;
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        sections.get(section).record(elapsed);
+        return elapsed;
+    }
+
+    /** Records a duration measured elsewhere, e.g. summed over several calls. */
+    public void record(int section, long nanos) {
+        if (enabled) {
+            sections.get(section).record(nanos);
+        }
+    }
+
+    /** Call at the top of every loop, records the time since the previous loop started. */
+    public void beginLoop() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (lastLoopStart != 0) {
+            sections.get(loopSection).record(now - lastLoopStart);
+        }
+        lastLoopStart = now;
+    }
+
+    /**
+     * Writes the summary once; later calls do nothing.
+     */
+    public void finish(String opModeName, Telemetry telemetry) {
+        if (!enabled || finished) {
+            return;
+        }
+        finished = true;
+
+        DataLogger logger = new DataLogger(DataLogger.getLogFileName(opModeName, "LoopProfile"));
+        logger.initializeLogging("Section", "Count", "MeanUs", "P50Us", "P95Us", "P99Us", "MaxUs");
+        for (int i = 0; i < sections.size(); i++) {
+            Section section = sections.get(i);
+            if (section.count == 0) {
+                continue;
+            }
+            String line = String.format(Locale.US, "%s: n=%d mean=%.0f p50=%.0f p95=%.0f p99=%.0f max=%.0f us",
+                    section.name, section.count, section.meanMicros(), section.percentileMicros(0.50),
+                    section.percentileMicros(0.95), section.percentileMicros(0.99), section.maxNanos / 1000.0);
+            Log.i(LOG_TAG, line);
+            if (telemetry != null) {
+                telemetry.addLine(line);
+            }
+            logger.logComment("Section " + i + ": " + section.name);
+            logger.log(i, section.count, section.meanMicros(), section.percentileMicros(0.50),
+                    section.percentileMicros(0.95), section.percentileMicros(0.99), section.maxNanos / 1000.0);
+        }
+        logger.close();
+        if (telemetry != null) {
+            telemetry.update();
+        }
+    }
+
+    private static final class Section {
+        final String name;
+        final int[] buckets = new int[BUCKET_COUNT];
+        long count;
+        long totalNanos;
+        long maxNanos;
+
+        Section(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos) {
+            int bucket = (int) Math.min(nanos / BUCKET_NANOS, BUCKET_COUNT - 1);
+            buckets[bucket]++;
+            count++;
+            totalNanos += nanos;
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+
+        double meanMicros() {
+            return count == 0 ? 0 : totalNanos / 1000.0 / count;
+        }
+
+        /** Upper edge of the bucket containing the given quantile, capped at the observed max. */
+        double percentileMicros(double quantile) {
+            long target = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += buckets[i];
+                if (seen >= target) {
+                    return Math.min((i + 1) * BUCKET_NANOS, maxNanos) / 1000.0;
+                }
+            }
+            return maxNanos / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import android.util.Log;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Puts every Control/Expansion Hub into MANUAL bulk caching. The first motor or encoder read after
+ * {@link #clear()} fetches all of a hub's inputs in one transaction, every other read in the same
+ * loop is served from that snapshot. The opmode base classes clear the cache once at the top of
+ * every scheduler iteration, so all subsystems see consistent values from the same instant.
+ *
+ * Only bulk data (encoders, velocities, digital/analog inputs, motor busy flags) is cached;
+ * I2C sensors, servos and motor writes are unaffected.
+ */
+public class LynxBulkCache {
+
+    private static final String LOG_TAG = LynxBulkCache.class.getSimpleName();
+
+    private static final int COMPARISON_LOOPS = 10;
+
+    private final List<LynxModule> hubs;
+    private final List<DcMotorEx> motors;
+
+    public LynxBulkCache(HardwareMap hardwareMap) {
+        this.hubs = hardwareMap.getAll(LynxModule.class);
+        this.motors = hardwareMap.getAll(DcMotorEx.class);
+    }
+
+    public void enableManualCaching() {
+        setMode(LynxModule.BulkCachingMode.MANUAL);
+    }
+
+    /**
+     * Drops the cached snapshot, call exactly once per loop before anything reads hardware.
+     */
+    public void clear() {
+        for (int i = 0; i < hubs.size(); i++) {
+            hubs.get(i).clearBulkCache();
+        }
+    }
+
+    /**
+     * Times reading every motor's position and velocity with caching off and in MANUAL mode, and
+     * logs both. Leaves the hubs in MANUAL mode.
+     */
+    public void logReadComparison() {
+        setMode(LynxModule.BulkCachingMode.OFF);
+        double uncachedMs = timeMotorReads(false);
+
+        setMode(LynxModule.BulkCachingMode.MANUAL);
+        double cachedMs = timeMotorReads(true);
+
+        Log.i(LOG_TAG, String.format(Locale.US, "%d hubs, %d motors: reads per loop %.2f ms uncached, %.2f ms with MANUAL bulk caching",
+                hubs.size(), motors.size(), uncachedMs, cachedMs));
+    }
+
+    private double timeMotorReads(boolean clearEachLoop) {
+        long start = System.nanoTime();
+        for (int loop = 0; loop < COMPARISON_LOOPS; loop++) {
+            if (clearEachLoop) {
+                clear();
+            }
+            for (int i = 0; i < motors.size(); i++) {
+                motors.get(i).getCurrentPosition();
+                motors.get(i).getVelocity();
+            }
+        }
+        return (System.nanoTime() - start) / 1.0E6 / COMPARISON_LOOPS;
+    }
+
+    private void setMode(LynxModule.BulkCachingMode mode) {
+        for (LynxModule hub : hubs) {
+            hub.setBulkCachingMode(mode);
+        }
+    }
+}
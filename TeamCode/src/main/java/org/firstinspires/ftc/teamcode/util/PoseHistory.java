@@ -0,0 +1,117 @@
+package org.firstinspires.ftc.teamcode.util;
+
+/**
+ * Fixed-size ring buffer of timestamped robot poses (x, y, heading) in primitive arrays, so
+ * recording one pose per loop never allocates. {@link #lookup} interpolates the pose at an
+ * arbitrary past time, e.g. the capture time of a camera frame.
+ */
+public final class PoseHistory {
+
+    private final long[] times;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] headings;
+    private int next;
+    private int size;
+
+    private double lookupX, lookupY, lookupHeading;
+
+    public PoseHistory(int capacity) {
+        times = new long[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+        headings = new double[capacity];
+    }
+
+    /** Samples have to be added in time order. */
+    public void add(long nanos, double x, double y, double heading) {
+        times[next] = nanos;
+        xs[next] = x;
+        ys[next] = y;
+        headings[next] = heading;
+        next = (next + 1) % times.length;
+        if (size < times.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Moves every recorded pose, used after the pose source was corrected so later lookups are in
+     * the corrected frame.
+     */
+    public void shift(double dx, double dy, double dHeading) {
+        for (int i = 0; i < size; i++) {
+            int index = index(i);
+            xs[index] += dx;
+            ys[index] += dy;
+            headings[index] += dHeading;
+        }
+    }
+
+    public void clear() {
+        size = 0;
+        next = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Interpolates the pose at the given time into {@link #getX()}, {@link #getY()} and
+     * {@link #getHeading()}. Returns false when the time is outside the recorded window.
+     */
+    public boolean lookup(long nanos) {
+        if (size == 0) {
+            return false;
+        }
+        int newer = index(size - 1);
+        if (nanos > times[newer] || nanos < times[index(0)]) {
+            return false;
+        }
+        for (int i = size - 2; i >= 0; i--) {
+            int older = index(i);
+            if (times[older] <= nanos) {
+                double span = times[newer] - times[older];
+                double t = span <= 0 ? 1 : (nanos - times[older]) / span;
+                lookupX = xs[older] + (xs[newer] - xs[older]) * t;
+                lookupY = ys[older] + (ys[newer] - ys[older]) * t;
+                lookupHeading = headings[older] + angleDifference(headings[newer], headings[older]) * t;
+                return true;
+            }
+            newer = older;
+        }
+        lookupX = xs[newer];
+        lookupY = ys[newer];
+        lookupHeading = headings[newer];
+        return true;
+    }
+
+    public double getX() {
+        return lookupX;
+    }
+
+    public double getY() {
+        return lookupY;
+    }
+
+    public double getHeading() {
+        return lookupHeading;
+    }
+
+    /** Oldest-first index into the arrays. */
+    private int index(int i) {
+        return (next - size + i + times.length) % times.length;
+    }
+
+    /** a - b wrapped to (-pi, pi]. */
+    public static double angleDifference(double a, double b) {
+        double d = (a - b) % (2 * Math.PI);
+        if (d > Math.PI) {
+            d -= 2 * Math.PI;
+        } else if (d <= -Math.PI) {
+            d += 2 * Math.PI;
+        }
+        return d;
+    }
+}
@@ -3,45 +3,180 @@ package org.firstinspires.ftc.teamcode.util;
 import android.content.Context;
 import android.net.wifi.WifiInfo;
 import android.net.wifi.WifiManager;
+import android.util.Log;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.bylazar.configurables.annotations.Configurable;
+
 import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
 
+import java.util.Locale;
+
+/**
+ * Samples the Wi-Fi link on a low priority thread. Every WifiManager call is an IPC into the system
+ * server, so the loop thread only reads the last sample, one volatile load per getter.
+ *
+ * Also keeps the minimum and mean RSSI and the number of dropouts since {@link #start()}: a dropout
+ * is the link going from connected to disconnected or below DropoutRssi. They are written to logcat
+ * when the monitor stops.
+ *
+ * Only one monitor runs at a time: starting one stops the previous, and the opmode base classes
+ * call {@link #stopActive()} when the opmode ends.
+ */
 public class WifiMonitor {
+
+    private static final String LOG_TAG = WifiMonitor.class.getSimpleName();
+
+    @Config
+    @Configurable
+    public static class WifiMonitorConfig {
+        public static int SamplePeriodMs = 500;
+
+        // A connected link weaker than this counts as dropped
+        public static double DropoutRssi = -85;
+    }
+
+    // Returned before the first sample and while disconnected
+    public static final double NO_SIGNAL = -127.0;
+    public static final String UNKNOWN_SSID = "UNKNOWN";
+
+    private static volatile WifiMonitor active;
+
     private final WifiManager wifiManager;
+    private volatile boolean running;
+    private Thread thread;
+
+    private volatile double signalStrength = NO_SIGNAL;
+    private volatile double linkSpeed;
+    private volatile String ssid = UNKNOWN_SSID;
+    private volatile double minSignalStrength = Double.NaN;
+    private volatile double meanSignalStrength = Double.NaN;
+    private volatile int dropouts;
+
+    private long connectedSamples;
+    private double signalStrengthSum;
+    // Not connected yet is not a dropout
+    private boolean dropped = true;
 
     public WifiMonitor() {
         Context context = AppUtil.getDefContext();
         this.wifiManager = (WifiManager) context.getSystemService(Context.WIFI_SERVICE);
     }
 
-    public double getSignalStrength() {
-        if (wifiManager != null) {
-            WifiInfo wifiInfo = wifiManager.getConnectionInfo();
-            if (wifiInfo != null) {
-                // Returns RSSI in dBm (e.g., -50 is good, -90 is bad)
-                return wifiInfo.getRssi();
-            }
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        WifiMonitor previous = active;
+        if (previous != null) {
+            previous.stop();
         }
-        return -127.0; // Error/No Signal
+        running = true;
+        thread = new Thread(this::sampleLoop, "WifiMonitor");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+        active = this;
     }
 
-    public double getLinkSpeed() {
-        if (wifiManager != null) {
-            WifiInfo wifiInfo = wifiManager.getConnectionInfo();
-            if (wifiInfo != null) {
-                // Returns link speed in Mbps
-                return wifiInfo.getLinkSpeed();
-            }
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
         }
-        return 0.0;
+        if (active == this) {
+            active = null;
+        }
+        Log.i(LOG_TAG, String.format(Locale.US, "%s: rssi min=%.0f mean=%.1f dBm, dropouts=%d",
+                ssid, minSignalStrength, meanSignalStrength, dropouts));
+    }
+
+    /** Stops the monitor of the opmode that is ending, if any. */
+    public static void stopActive() {
+        WifiMonitor monitor = active;
+        if (monitor != null) {
+            monitor.stop();
+        }
+    }
+
+    /** RSSI in dBm (e.g., -50 is good, -90 is bad), {@link #NO_SIGNAL} when not connected. */
+    public double getSignalStrength() {
+        return signalStrength;
+    }
+
+    /** Link speed in Mbps, 0 when not connected. */
+    public double getLinkSpeed() {
+        return linkSpeed;
     }
-    
+
     public String getSSID() {
-        if (wifiManager != null) {
-            WifiInfo wifiInfo = wifiManager.getConnectionInfo();
-            if (wifiInfo != null) {
-                return wifiInfo.getSSID();
+        return ssid;
+    }
+
+    /** Weakest connected RSSI since start, NaN before the first connected sample. */
+    public double getMinSignalStrength() {
+        return minSignalStrength;
+    }
+
+    /** Mean connected RSSI since start, NaN before the first connected sample. */
+    public double getMeanSignalStrength() {
+        return meanSignalStrength;
+    }
+
+    public int getDropouts() {
+        return dropouts;
+    }
+
+    private void sampleLoop() {
+        while (running) {
+            try {
+                sample();
+            } catch (RuntimeException e) {
+                Log.w(LOG_TAG, "Wi-Fi sample failed", e);
+            }
+
+            try {
+                Thread.sleep(WifiMonitorConfig.SamplePeriodMs);
+            } catch (InterruptedException e) {
+                return;
             }
         }
-        return "UNKNOWN";
+    }
+
+    private void sample() {
+        WifiInfo wifiInfo = wifiManager != null ? wifiManager.getConnectionInfo() : null;
+        // Not the network id, it is -1 on a Control Hub running its own access point
+        if (wifiInfo == null || wifiInfo.getRssi() <= NO_SIGNAL) {
+            signalStrength = NO_SIGNAL;
+            linkSpeed = 0.0;
+            ssid = UNKNOWN_SSID;
+            updateDropout(true);
+            return;
+        }
+
+        double rssi = wifiInfo.getRssi();
+        signalStrength = rssi;
+        linkSpeed = wifiInfo.getLinkSpeed();
+        ssid = wifiInfo.getSSID();
+
+        connectedSamples++;
+        signalStrengthSum += rssi;
+        meanSignalStrength = signalStrengthSum / connectedSamples;
+        if (Double.isNaN(minSignalStrength) || rssi < minSignalStrength) {
+            minSignalStrength = rssi;
+        }
+        updateDropout(rssi < WifiMonitorConfig.DropoutRssi);
+    }
+
+    private void updateDropout(boolean down) {
+        if (down && !dropped) {
+            // Only the sampler thread writes it
+            dropouts = dropouts + 1;
+        }
+        dropped = down;
     }
 }
@@ -0,0 +1,207 @@
+package org.firstinspires.ftc.teamcode.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.teamcode.util.Allocations;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LoopPIDFControllerTest {
+
+    private static final double EPSILON = 1.0E-12;
+    private static final long MS = 1_000_000L;
+
+    @Before
+    public void resetClock() {
+        LoopClock.reset();
+    }
+
+    @Test
+    public void firstCallIsProportionalAndFeedforwardOnly() {
+        LoopPIDFController pid = new LoopPIDFController(2, 1, 1, 0.1);
+
+        double output = pid.update(0.5, 1000 * MS);
+
+        assertEquals(2 * 0.5 + 0.1, output, EPSILON);
+        assertEquals(0, pid.getIntegral(), 0);
+        assertEquals(0, pid.getDerivative(), 0);
+    }
+
+    @Test
+    public void secondCallInSameLoopKeepsIntegralAndDerivative() {
+        LoopPIDFController pid = new LoopPIDFController(2, 1, 0.5);
+        pid.update(0.5, 0);
+        pid.update(0.3, 20 * MS);
+        double integral = pid.getIntegral();
+        double derivative = pid.getDerivative();
+
+        double output = pid.update(0.8, 20 * MS);
+
+        assertEquals(integral, pid.getIntegral(), 0);
+        assertEquals(derivative, pid.getDerivative(), 0);
+        assertEquals(2 * 0.8 + integral + 0.5 * derivative, output, EPSILON);
+    }
+
+    @Test
+    public void calculateTwiceInOneLoopClockTickStaysFinite() {
+        LoopPIDFController pid = new LoopPIDFController(1, 1, 1);
+        LoopClock.get().tick(0);
+        pid.calculate(1.0);
+        LoopClock.get().tick(10 * MS);
+        pid.calculate(0.9);
+
+        double output = pid.calculate(0.7);
+
+        assertFalse(Double.isNaN(output) || Double.isInfinite(output));
+    }
+
+    @Test
+    public void integralStepIsCappedAtMaxDt() {
+        LoopPIDFController pid = new LoopPIDFController(0, 1, 0).withMaxDt(0.05).withIntegralLimit(100);
+        pid.update(1.0, 0);
+
+        // A one second stall integrates as if it were MaxDt long
+        pid.update(1.0, 1000 * MS);
+
+        assertEquals(0.05, pid.getIntegral(), EPSILON);
+    }
+
+    @Test
+    public void integralTermIsClampedToIntegralLimit() {
+        LoopPIDFController pid = new LoopPIDFController(0, 2, 0).withIntegralLimit(0.5);
+        pid.update(1.0, 0);
+        double output = 0;
+        for (int i = 1; i <= 500; i++) {
+            output = pid.update(1.0, i * 20 * MS);
+        }
+
+        assertEquals(0.5, output, EPSILON);
+        assertEquals(0.25, pid.getIntegral(), EPSILON);
+    }
+
+    @Test
+    public void setpointChangeResetsIntegralAndDerivative() {
+        LoopPIDFController pid = new LoopPIDFController(1, 1, 1).withSetpointResetTolerance(0.5);
+        for (int i = 0; i < 10; i++) {
+            LoopClock.get().tick(i * 20 * MS);
+            pid.calculate(10, 8);
+        }
+        assertTrue(pid.getIntegral() > 0);
+
+        LoopClock.get().tick(200 * MS);
+        double output = pid.calculate(20, 8);
+
+        assertEquals(0, pid.getIntegral(), 0);
+        assertEquals(0, pid.getDerivative(), 0);
+        assertEquals(12, output, EPSILON);
+    }
+
+    @Test
+    public void setpointMoveWithinToleranceKeepsIntegral() {
+        LoopPIDFController pid = new LoopPIDFController(1, 1, 0).withSetpointResetTolerance(0.5);
+        for (int i = 0; i < 10; i++) {
+            LoopClock.get().tick(i * 20 * MS);
+            pid.calculate(10, 8);
+        }
+        double integral = pid.getIntegral();
+
+        LoopClock.get().tick(200 * MS);
+        pid.calculate(10.2, 8);
+
+        assertTrue(pid.getIntegral() > integral);
+    }
+
+    @Test
+    public void derivativeIsLowPassFiltered() {
+        LoopPIDFController pid = new LoopPIDFController(0, 0, 1).withDerivativeFilter(0.02);
+        pid.update(0, 0);
+
+        pid.update(1, 20 * MS);
+
+        // Raw derivative 1 / 0.02 s, filter gain dt / (tau + dt) = 0.5
+        assertEquals(25, pid.getDerivative(), 1.0E-9);
+    }
+
+    @Test
+    public void replayOfTraceGivesHandComputedOutputs() throws IOException {
+        List<double[]> trace = readTrace("traces/pid_timing_cases.csv");
+        // kp = ki = kd = 1 and no derivative filter, so each output is error + integral + derivative
+        LoopPIDFController pid = new LoopPIDFController(1, 1, 1).withIntegralLimit(0.04).withMaxDt(0.1);
+        double[] expected = {
+                // First sample, proportional only
+                0.5,
+                // 20 ms step, integral 0.4 * 0.02
+                0.4 + 0.008 + (0.4 - 0.5) / 0.02,
+                // 25 ms of jitter, integral 0.008 + 0.3 * 0.025
+                0.3 + 0.0155 + (0.3 - 0.4) / 0.025,
+                // Same timestamp: new proportional term, integral and derivative kept
+                0.35 + 0.0155 + (0.3 - 0.4) / 0.025,
+                // The derivative starts from the duplicate sample's error, integral 0.0155 + 0.25 * 0.015
+                0.25 + 0.01925 + (0.25 - 0.35) / 0.015,
+                // 300 ms stall: the integral step is capped at 0.1 s, 0.01925 + 0.2 * 0.1
+                0.2 + 0.03925 + (0.2 - 0.25) / 0.3,
+                // 0.03925 + 0.1 * 0.02 passes the limit and is clamped to 0.04
+                0.1 + 0.04 + (0.1 - 0.2) / 0.02,
+        };
+        assertEquals(expected.length, trace.size());
+
+        double[] outputs = new double[trace.size()];
+        for (int i = 0; i < trace.size(); i++) {
+            outputs[i] = pid.update(trace.get(i)[1], Math.round(trace.get(i)[0] * 1.0E9));
+            assertEquals("row " + i, expected[i], outputs[i], 1.0E-9);
+        }
+
+        // After a reset the same trace gives the same outputs, no state survives
+        pid.reset();
+        for (int i = 0; i < trace.size(); i++) {
+            long nanos = Math.round(trace.get(i)[0] * 1.0E9);
+            assertEquals("replay row " + i, outputs[i], pid.update(trace.get(i)[1], nanos), 0);
+        }
+    }
+
+    @Test
+    public void updateDoesNotAllocate() {
+        LoopPIDFController pid = new LoopPIDFController(1, 0.5, 0.1).withDerivativeFilter(0.02);
+        long[] nanos = {0};
+
+        long bytes = Allocations.measure(20_000, 100_000, () -> {
+            nanos[0] += 10 * MS;
+            pid.update(Math.sin(nanos[0] / 1.0E9), nanos[0]);
+        });
+
+        assertEquals(0, bytes);
+    }
+
+    /** Rows of a DataLogger CSV, comment and header lines skipped. */
+    private static List<double[]> readTrace(String resource) throws IOException {
+        InputStream in = LoopPIDFControllerTest.class.getClassLoader().getResourceAsStream(resource);
+        assertNotNull(resource, in);
+        List<double[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                double[] row = new double[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    row[i] = Double.parseDouble(parts[i]);
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,105 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.teamcode.util.Allocations;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+public class DataLoggerChannelTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String storagePath;
+    private DataLogger.LogFormat format;
+    private boolean compress;
+    private boolean asyncWrite;
+
+    @Before
+    public void logToTemporaryFolder() {
+        storagePath = DataLogger.StoragePath;
+        format = DataLogger.Format;
+        compress = DataLogger.CompressClosedLogs;
+        asyncWrite = DataLogger.AsyncWrite;
+        DataLogger.StoragePath = folder.getRoot().getAbsolutePath();
+        DataLogger.CompressClosedLogs = false;
+        DataLogger.AsyncWrite = false;
+    }
+
+    @After
+    public void restoreConfig() {
+        DataLogger.StoragePath = storagePath;
+        DataLogger.Format = format;
+        DataLogger.CompressClosedLogs = compress;
+        DataLogger.AsyncWrite = asyncWrite;
+    }
+
+    @Test
+    public void csvRowsAreFormattedByChannelType() throws IOException {
+        DataLogger.Format = DataLogger.LogFormat.CSV;
+        DataLogger logger = new DataLogger("typed");
+        DoubleChannel power = logger.addDouble("Power");
+        IntChannel count = logger.addInt("Count");
+        BooleanChannel ready = logger.addBoolean("Ready");
+        logger.initializeLogging();
+
+        power.set(-0.25);
+        count.set(3);
+        ready.set(true);
+        logger.commitRow();
+        logger.close();
+
+        List<String> lines = Files.readAllLines(new File(logDirectory(), "typed.csv").toPath(), StandardCharsets.UTF_8);
+        assertEquals("# Timestamp,Power,Count,Ready", lines.get(0));
+        assertTrue(lines.get(1), lines.get(1).endsWith(",-0.25,3,1"));
+    }
+
+    @Test
+    public void csvCommitRowDoesNotAllocate() {
+        assertCommitRowDoesNotAllocate(DataLogger.LogFormat.CSV);
+    }
+
+    @Test
+    public void binaryCommitRowDoesNotAllocate() {
+        assertCommitRowDoesNotAllocate(DataLogger.LogFormat.BINARY);
+    }
+
+    private void assertCommitRowDoesNotAllocate(DataLogger.LogFormat logFormat) {
+        DataLogger.Format = logFormat;
+        DataLogger logger = new DataLogger("alloc_" + logFormat);
+        DoubleChannel velocity = logger.addDouble("Velocity");
+        DoubleChannel rssi = logger.addDouble("RSSI", SamplingPolicy.everyNth(50));
+        IntChannel count = logger.addInt("Count");
+        BooleanChannel ready = logger.addBoolean("Ready", SamplingPolicy.onChange(0));
+        logger.initializeLogging();
+        int[] loop = {0};
+
+        // Each round flushes the 64 KB write buffer dozens of times
+        long bytes = Allocations.measure(50_000, 100_000, () -> {
+            int i = loop[0]++;
+            velocity.set(700 + i % 97 * 0.37);
+            rssi.set(-50 - i % 7);
+            count.set(i);
+            ready.set(i % 40 < 20);
+            logger.commitRow();
+        });
+        logger.close();
+
+        assertEquals(0, bytes);
+    }
+
+    private File logDirectory() {
+        return new File(folder.getRoot(), "FIRST/data/logs");
+    }
+}
@@ -0,0 +1,84 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class LogNumberFormatTest {
+
+    private static String format(double value) {
+        char[] buffer = new char[LogNumberFormat.MAX_CHARS];
+        return new String(buffer, 0, LogNumberFormat.appendDouble(buffer, 0, value));
+    }
+
+    private static String format(long value) {
+        char[] buffer = new char[LogNumberFormat.MAX_CHARS];
+        return new String(buffer, 0, LogNumberFormat.appendLong(buffer, 0, value));
+    }
+
+    @Test
+    public void wholeAndFractionalValues() {
+        assertEquals("0", format(0.0));
+        assertEquals("42", format(42.0));
+        assertEquals("0.02", format(0.02));
+        assertEquals("745.5", format(745.5));
+    }
+
+    @Test
+    public void negativeValues() {
+        assertEquals("-1.5", format(-1.5));
+        assertEquals("-0.000000001", format(-1.0E-9));
+        assertEquals("-3", format(-3L));
+        assertEquals("0", format(-0.0));
+        // Rounds to zero, so no sign either
+        assertEquals("0", format(-1.0E-10));
+        assertEquals("0", format(-4.9E-10));
+        assertEquals("-0.000000001", format(-6.0E-10));
+    }
+
+    @Test
+    public void nonFiniteValues() {
+        assertEquals("NaN", format(Double.NaN));
+        assertEquals("Infinity", format(Double.POSITIVE_INFINITY));
+        assertEquals("-Infinity", format(Double.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    public void roundsToNineFractionDigits() {
+        assertEquals("0.12345679", format(0.1234567896));
+        assertEquals("1", format(0.9999999999));
+        assertEquals("0", format(1.0E-10));
+        assertEquals("-2", format(-1.9999999999));
+    }
+
+    @Test
+    public void largeValues() {
+        assertEquals("9000000000", format(9.0E9));
+        assertEquals("1500000000000", format(1.5E12));
+        assertEquals(Double.toString(1.0E19), format(1.0E19));
+        assertEquals(Long.toString(Long.MAX_VALUE), format(Long.MAX_VALUE));
+        assertEquals(Long.toString(Long.MIN_VALUE), format(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void randomValuesParseBackWithinRounding() {
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12) - 3);
+            String text = format(value);
+            assertTrue(text, text.length() <= LogNumberFormat.MAX_CHARS);
+            assertEquals(text, value, Double.parseDouble(text), 5.0E-10 + Math.ulp(value) * 4);
+        }
+    }
+
+    @Test
+    public void appendsAtPosition() {
+        char[] buffer = new char[16];
+        buffer[0] = 'x';
+        int end = LogNumberFormat.appendDouble(buffer, 1, -2.25);
+        assertEquals("x-2.25", new String(buffer, 0, end));
+    }
+}
@@ -0,0 +1,35 @@
+package org.firstinspires.ftc.teamcode.datalogger;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class SamplingPolicyTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void everyMsRejectsZeroPeriod() {
+        SamplingPolicy.everyMs(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void everyMsRejectsNegativePeriod() {
+        SamplingPolicy.everyMs(-20);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void everyNthRejectsZero() {
+        SamplingPolicy.everyNth(0);
+    }
+
+    @Test
+    public void everyMsRecordsOncePerPeriod() {
+        SamplingPolicy policy = SamplingPolicy.everyMs(1);
+        long periodNanos = TimeUnit.MILLISECONDS.toNanos(1);
+
+        assertFalse(policy.isDue(10, periodNanos - 1, 0, 0));
+        assertTrue(policy.isDue(1, periodNanos, 0, 0));
+    }
+}
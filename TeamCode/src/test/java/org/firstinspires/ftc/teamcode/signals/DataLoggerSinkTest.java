@@ -0,0 +1,80 @@
+package org.firstinspires.ftc.teamcode.signals;
+
+import static org.junit.Assert.assertEquals;
+
+import org.firstinspires.ftc.teamcode.datalogger.DataLogger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class DataLoggerSinkTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String storagePath;
+    private DataLogger.LogFormat format;
+    private boolean compress;
+    private boolean asyncWrite;
+
+    @Before
+    public void logToTemporaryFolder() {
+        storagePath = DataLogger.StoragePath;
+        format = DataLogger.Format;
+        compress = DataLogger.CompressClosedLogs;
+        asyncWrite = DataLogger.AsyncWrite;
+        DataLogger.StoragePath = folder.getRoot().getAbsolutePath();
+        DataLogger.Format = DataLogger.LogFormat.CSV;
+        DataLogger.CompressClosedLogs = false;
+        DataLogger.AsyncWrite = false;
+        SignalBus.reset();
+    }
+
+    @After
+    public void restoreConfig() {
+        DataLogger.StoragePath = storagePath;
+        DataLogger.Format = format;
+        DataLogger.CompressClosedLogs = compress;
+        DataLogger.AsyncWrite = asyncWrite;
+        SignalBus.reset();
+    }
+
+    @Test
+    public void prefixFilterSelectsColumnsBeforeFirstPublish() throws IOException {
+        SignalBus bus = SignalBus.get();
+        bus.addDouble("Shooter", "Velocity");
+        bus.addBoolean("Shooter", "Ready");
+        bus.addDouble("Drive", "Heading");
+        bus.addDouble("Drive", "Speed");
+        bus.addDouble("LimeLight", "Distance");
+
+        assertEquals("# Timestamp,Velocity,Ready,Heading", header("Shooter, Drive/Heading"));
+    }
+
+    @Test
+    public void wildcardAndEmptyPrefixFilters() throws IOException {
+        SignalBus bus = SignalBus.get();
+        bus.addDouble("Shooter", "Velocity");
+        bus.addDouble("Drive", "Heading");
+
+        assertEquals("# Timestamp,Velocity,Heading", header("*"));
+        assertEquals("# Timestamp", header(""));
+    }
+
+    private String header(String spec) throws IOException {
+        String fileName = "sink_" + Math.abs(spec.hashCode());
+        DataLogger logger = new DataLogger(fileName);
+        new DataLoggerSink(logger, SignalBus.get(), SignalFilter.prefixes(() -> spec));
+        logger.initializeLogging();
+        logger.close();
+        File file = new File(folder.getRoot(), "FIRST/data/logs/" + fileName + ".csv");
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).get(0);
+    }
+}
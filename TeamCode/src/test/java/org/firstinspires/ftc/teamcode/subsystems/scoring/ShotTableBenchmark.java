@@ -0,0 +1,53 @@
+package org.firstinspires.ftc.teamcode.subsystems.scoring;
+
+import java.util.Locale;
+
+/**
+ * Times {@link ShotTable#lookup} on a two point and a 400 point table. Not part of the unit tests,
+ * wall clock numbers depend on the machine; run main() by hand (e.g. from Android Studio) after
+ * changing the lookup. Both tables should take about the same time per lookup.
+ */
+public final class ShotTableBenchmark {
+
+    private static final int POINTS = 400;
+    private static final int ITERATIONS = 1_000_000;
+
+    private static final ShotTable.Shot shot = new ShotTable.Shot();
+    private static double checksum;
+
+    private ShotTableBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        ShotTable small = new ShotTable(new double[]{44, 134}, new double[]{730, 845}, new double[]{0.95, 0.45});
+        double[] distances = new double[POINTS];
+        double[] tps = new double[POINTS];
+        double[] tilt = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            distances[i] = 44 + i * 0.25;
+            tps[i] = 700 + i;
+            tilt[i] = 0.95 - i * 0.001;
+        }
+        ShotTable large = new ShotTable(distances, tps, tilt);
+
+        double smallNanos = nanosPerLookup(small, 44, 134);
+        double largeNanos = nanosPerLookup(large, 44, distances[POINTS - 1]);
+        System.out.printf(Locale.US, "ShotTable.lookup: %.1f ns with 2 points, %.1f ns with %d points (checksum %.0f)%n",
+                smallNanos, largeNanos, POINTS, checksum);
+    }
+
+    /** Best of several timed runs, so a GC or JIT pause doesn't decide the result. */
+    private static double nanosPerLookup(ShotTable shotTable, double from, double to) {
+        double span = to - from;
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < 7; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                shotTable.lookup(from + (i * 0.618033) % span, shot);
+                checksum += shot.tps;
+            }
+            best = Math.min(best, (System.nanoTime() - start) / (double) ITERATIONS);
+        }
+        return best;
+    }
+}
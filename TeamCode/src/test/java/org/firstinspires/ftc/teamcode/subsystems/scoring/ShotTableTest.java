@@ -0,0 +1,83 @@
+package org.firstinspires.ftc.teamcode.subsystems.scoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.teamcode.util.Allocations;
+import org.junit.Test;
+
+public class ShotTableTest {
+
+    // TPS of the competition table in Shooter, measured at the upper edges of the old 10-inch bins.
+    // The tilt varies here so both curves are exercised.
+    private static final double[] DISTANCES = {44, 54, 64, 74, 84, 94, 114, 124, 134};
+    private static final double[] TPS = {730, 710, 720, 740, 740, 760, 810, 825, 845};
+    private static final double[] TILT = {0.95, 0.85, 0.75, 0.65, 0.55, 0.45, 0.45, 0.45, 0.45};
+
+    private final ShotTable table = new ShotTable(DISTANCES, TPS, TILT);
+    private final ShotTable.Shot shot = new ShotTable.Shot();
+
+    @Test
+    public void passesThroughMeasuredPoints() {
+        for (int i = 0; i < DISTANCES.length; i++) {
+            table.lookup(DISTANCES[i], shot);
+            assertEquals(TPS[i], shot.tps, 1.0E-9);
+            assertEquals(TILT[i], shot.tilt, 1.0E-9);
+        }
+    }
+
+    @Test
+    public void monotoneBetweenPoints() {
+        for (int i = 0; i < DISTANCES.length - 1; i++) {
+            double low = Math.min(TPS[i], TPS[i + 1]);
+            double high = Math.max(TPS[i], TPS[i + 1]);
+            double direction = Math.signum(TPS[i + 1] - TPS[i]);
+            double previous = TPS[i];
+            for (double d = DISTANCES[i]; d <= DISTANCES[i + 1]; d += 0.05) {
+                table.lookup(d, shot);
+                assertTrue("overshoot at " + d, shot.tps >= low - 1.0E-9 && shot.tps <= high + 1.0E-9);
+                assertTrue("turns back at " + d, (shot.tps - previous) * direction >= -1.0E-9);
+                previous = shot.tps;
+            }
+        }
+    }
+
+    @Test
+    public void clampsOutsideTheTable() {
+        table.lookup(10, shot);
+        assertEquals(TPS[0], shot.tps, 0);
+        assertEquals(TILT[0], shot.tilt, 0);
+
+        table.lookup(300, shot);
+        assertEquals(TPS[TPS.length - 1], shot.tps, 0);
+        assertEquals(TILT[TILT.length - 1], shot.tilt, 0);
+
+        table.lookup(Double.NaN, shot);
+        assertEquals(TPS[0], shot.tps, 0);
+    }
+
+    @Test
+    public void noStepsAtOldBinEdges() {
+        // The old ladder changed by 10 to 50 TPS across each of these edges
+        double step = 0.01;
+        for (double edge : DISTANCES) {
+            table.lookup(edge - step, shot);
+            double below = shot.tps;
+            table.lookup(edge + step, shot);
+            double above = shot.tps;
+            assertEquals("step at " + edge, below, above, 0.2);
+        }
+    }
+
+    @Test
+    public void lookupDoesNotAllocate() {
+        double[] distance = {40};
+
+        long bytes = Allocations.measure(20_000, 200_000, () -> {
+            distance[0] = distance[0] > 140 ? 40 : distance[0] + 0.37;
+            table.lookup(distance[0], shot);
+        });
+
+        assertEquals(0, bytes);
+    }
+}
@@ -0,0 +1,38 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Bytes allocated by the calling thread, for tests that check a loop-time path does not allocate.
+ * Needs a HotSpot JVM, which the local unit tests run on.
+ */
+public final class Allocations {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Allocations() {
+    }
+
+    /**
+     * Runs the body warmup times, then returns the fewest bytes allocated over iterations runs in
+     * any of three rounds. An allocation in the body shows up in every round; a one-off, such as
+     * the JIT deoptimizing the measuring loop and reallocating what escape analysis removed, only
+     * in one.
+     */
+    public static long measure(int warmup, int iterations, Runnable body) {
+        for (int i = 0; i < warmup; i++) {
+            body.run();
+        }
+        long thread = Thread.currentThread().getId();
+        long fewest = Long.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            long before = THREADS.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < iterations; i++) {
+                body.run();
+            }
+            fewest = Math.min(fewest, THREADS.getThreadAllocatedBytes(thread) - before);
+        }
+        return fewest;
+    }
+}